@@ -6,9 +6,8 @@ import java.util.*;
  * Features: CRUD operations, sorting, filtering, and file persistence
  */
 public class AdvancedProductManagementSystem {
-    // Array to store products (max 100)
-    static Product[] products = new Product[100];
-    static int count = 0;
+    // Products sorted by ID (grows as needed)
+    static ProductStore products = new ProductStore();
     static Scanner sc = new Scanner(System.in);
     static final String FILE_NAME = "products.txt";
 
@@ -31,13 +30,14 @@ public class AdvancedProductManagementSystem {
                 case 6 -> sortByPrice();
                 case 7 -> sortByName();
                 case 8 -> filterByCategory();
-                case 9 -> {
+                case 9 -> deleteMultipleProducts();
+                case 10 -> {
                     saveToFile();
                     System.out.println("Data saved. Exiting...");
                 }
                 default -> System.out.println("Invalid choice! Try again.");
             }
-        } while (choice != 9);
+        } while (choice != 10);
     }
 
     /**
@@ -53,27 +53,21 @@ public class AdvancedProductManagementSystem {
         System.out.println("6. Sort Products by Price");
         System.out.println("7. Sort Products by Name");
         System.out.println("8. Filter Products by Category");
-        System.out.println("9. Save & Exit");
+        System.out.println("9. Delete Multiple Products");
+        System.out.println("10. Save & Exit");
     }
 
     /**
      * Add a new product to the system
      */
     public static void addProduct() {
-        if (count >= products.length) {
-            System.out.println("Product list is full! Maximum 100 products allowed.");
-            return;
-        }
-
         System.out.print("Enter Product ID: ");
         int id = sc.nextInt();
 
         // Check if ID already exists
-        for (int i = 0; i < count; i++) {
-            if (products[i].id == id) {
-                System.out.println("Product ID already exists! Please use a different ID.");
-                return;
-            }
+        if (products.contains(id)) {
+            System.out.println("Product ID already exists! Please use a different ID.");
+            return;
         }
 
         sc.nextLine(); // consume newline
@@ -100,7 +94,7 @@ public class AdvancedProductManagementSystem {
         System.out.print("Enter Category (Electronics/Clothing/Grocery/Books/Others): ");
         String category = sc.nextLine();
 
-        products[count++] = new Product(id, name, price, qty, category);
+        products.add(new Product(id, name, price, qty, category));
         System.out.println("Product added successfully!");
     }
 
@@ -108,27 +102,35 @@ public class AdvancedProductManagementSystem {
      * View all products in the system
      */
     public static void viewProducts() {
-        if (count == 0) {
+        if (products.isEmpty()) {
             System.out.println("No products available!");
             return;
         }
+        printTable(products.toArray());
+    }
 
+    /**
+     * Print a list of products as a table
+     *
+     * @param list Products in display order
+     */
+    static void printTable(Product[] list) {
         System.out.println("\n" + "=".repeat(75));
         System.out.printf("%-10s %-15s %-10s %-10s %-15s\n", "ID", "Name", "Price", "Quantity", "Category");
         System.out.println("=".repeat(75));
 
-        for (int i = 0; i < count; i++) {
-            products[i].display();
+        for (Product product : list) {
+            product.display();
         }
         System.out.println("=".repeat(75));
-        System.out.println("Total products: " + count);
+        System.out.println("Total products: " + list.length);
     }
 
     /**
      * Search for a product by ID
      */
     public static void searchProduct() {
-        if (count == 0) {
+        if (products.isEmpty()) {
             System.out.println("No products available to search!");
             return;
         }
@@ -136,23 +138,22 @@ public class AdvancedProductManagementSystem {
         System.out.print("Enter Product ID to search: ");
         int id = sc.nextInt();
 
-        for (int i = 0; i < count; i++) {
-            if (products[i].id == id) {
-                System.out.println("\nProduct found:");
-                System.out.printf("%-10s %-15s %-10s %-10s %-15s\n", "ID", "Name", "Price", "Quantity", "Category");
-                System.out.println("-".repeat(75));
-                products[i].display();
-                return;
-            }
+        Product product = products.find(id);
+        if (product == null) {
+            System.out.println("Product with ID " + id + " not found!");
+            return;
         }
-        System.out.println("Product with ID " + id + " not found!");
+        System.out.println("\nProduct found:");
+        System.out.printf("%-10s %-15s %-10s %-10s %-15s\n", "ID", "Name", "Price", "Quantity", "Category");
+        System.out.println("-".repeat(75));
+        product.display();
     }
 
     /**
      * Update an existing product
      */
     public static void updateProduct() {
-        if (count == 0) {
+        if (products.isEmpty()) {
             System.out.println("No products available to update!");
             return;
         }
@@ -160,49 +161,48 @@ public class AdvancedProductManagementSystem {
         System.out.print("Enter Product ID to update: ");
         int id = sc.nextInt();
 
-        for (int i = 0; i < count; i++) {
-            if (products[i].id == id) {
-                System.out.println("Current product details:");
-                System.out.printf("%-10s %-15s %-10s %-10s %-15s\n", "ID", "Name", "Price", "Quantity", "Category");
-                System.out.println("-".repeat(75));
-                products[i].display();
-
-                sc.nextLine(); // consume newline
-                System.out.print("Enter New Name: ");
-                products[i].name = sc.nextLine();
-
-                System.out.print("Enter New Price: ");
-                double newPrice = sc.nextDouble();
-                if (newPrice >= 0) {
-                    products[i].price = newPrice;
-                } else {
-                    System.out.println("Invalid price! Keeping old price.");
-                }
+        Product product = products.find(id);
+        if (product == null) {
+            System.out.println("Product with ID " + id + " not found!");
+            return;
+        }
+        System.out.println("Current product details:");
+        System.out.printf("%-10s %-15s %-10s %-10s %-15s\n", "ID", "Name", "Price", "Quantity", "Category");
+        System.out.println("-".repeat(75));
+        product.display();
 
-                System.out.print("Enter New Quantity: ");
-                int newQty = sc.nextInt();
-                if (newQty >= 0) {
-                    products[i].quantity = newQty;
-                } else {
-                    System.out.println("Invalid quantity! Keeping old quantity.");
-                }
+        sc.nextLine(); // consume newline
+        System.out.print("Enter New Name: ");
+        products.setName(product, sc.nextLine());
 
-                sc.nextLine(); // consume newline
-                System.out.print("Enter New Category: ");
-                products[i].category = sc.nextLine();
+        System.out.print("Enter New Price: ");
+        double newPrice = sc.nextDouble();
+        if (newPrice >= 0) {
+            products.setPrice(product, newPrice);
+        } else {
+            System.out.println("Invalid price! Keeping old price.");
+        }
 
-                System.out.println("Product updated successfully!");
-                return;
-            }
+        System.out.print("Enter New Quantity: ");
+        int newQty = sc.nextInt();
+        if (newQty >= 0) {
+            product.quantity = newQty;
+        } else {
+            System.out.println("Invalid quantity! Keeping old quantity.");
         }
-        System.out.println("Product with ID " + id + " not found!");
+
+        sc.nextLine(); // consume newline
+        System.out.print("Enter New Category: ");
+        products.setCategory(product, sc.nextLine());
+
+        System.out.println("Product updated successfully!");
     }
 
     /**
      * Delete a product from the system
      */
     public static void deleteProduct() {
-        if (count == 0) {
+        if (products.isEmpty()) {
             System.out.println("No products available to delete!");
             return;
         }
@@ -210,64 +210,105 @@ public class AdvancedProductManagementSystem {
         System.out.print("Enter Product ID to delete: ");
         int id = sc.nextInt();
 
-        for (int i = 0; i < count; i++) {
-            if (products[i].id == id) {
-                System.out.println("Product to be deleted:");
-                products[i].display();
+        Product product = products.find(id);
+        if (product == null) {
+            System.out.println("Product with ID " + id + " not found!");
+            return;
+        }
+        System.out.println("Product to be deleted:");
+        product.display();
+
+        System.out.print("Are you sure you want to delete this product? (y/n): ");
+        sc.nextLine(); // consume newline
+        String confirm = sc.nextLine();
 
-                System.out.print("Are you sure you want to delete this product? (y/n): ");
-                sc.nextLine(); // consume newline
-                String confirm = sc.nextLine();
+        if (confirm.equalsIgnoreCase("y") || confirm.equalsIgnoreCase("yes")) {
+            products.remove(id);
+            System.out.println("Product deleted successfully!");
+        } else {
+            System.out.println("Delete operation cancelled.");
+        }
+    }
 
-                if (confirm.equalsIgnoreCase("y") || confirm.equalsIgnoreCase("yes")) {
-                    // Shift elements to fill the gap
-                    for (int j = i; j < count - 1; j++) {
-                        products[j] = products[j + 1];
-                    }
-                    products[--count] = null; // Clear the last element
-                    System.out.println("Product deleted successfully!");
-                } else {
-                    System.out.println("Delete operation cancelled.");
-                }
+    /**
+     * Delete several products at once (IDs separated by spaces or commas)
+     * The gaps are closed in a single compaction pass afterwards
+     */
+    public static void deleteMultipleProducts() {
+        if (products.isEmpty()) {
+            System.out.println("No products available to delete!");
+            return;
+        }
+
+        sc.nextLine(); // consume newline
+        System.out.print("Enter Product IDs to delete (e.g. 101 102 105): ");
+        String[] tokens = sc.nextLine().trim().split("[\\s,]+");
+        int[] ids = new int[tokens.length];
+        int idCount = 0;
+        for (String token : tokens) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            try {
+                ids[idCount++] = Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid product ID: " + token + ". Delete operation cancelled.");
                 return;
             }
         }
-        System.out.println("Product with ID " + id + " not found!");
+        if (idCount == 0) {
+            System.out.println("No product IDs entered.");
+            return;
+        }
+
+        System.out.print("Are you sure you want to delete " + idCount + " product(s)? (y/n): ");
+        String confirm = sc.nextLine();
+        if (!confirm.equalsIgnoreCase("y") && !confirm.equalsIgnoreCase("yes")) {
+            System.out.println("Delete operation cancelled.");
+            return;
+        }
+
+        int removed = products.removeAll(Arrays.copyOf(ids, idCount));
+        products.compact();
+        System.out.println(removed + " product(s) deleted successfully!");
+        if (removed < idCount) {
+            System.out.println((idCount - removed) + " ID(s) were not found or listed twice.");
+        }
     }
 
     /**
-     * Sort products by price (ascending order)
+     * Show products sorted by price (ascending order)
+     * The store stays in ID order; only the displayed copy is sorted
      */
     public static void sortByPrice() {
-        if (count == 0) {
+        if (products.isEmpty()) {
             System.out.println("No products available to sort!");
             return;
         }
 
-        Arrays.sort(products, 0, count, Comparator.comparingDouble(p -> p.price));
         System.out.println("Products sorted by price (ascending order)!");
-        viewProducts();
+        printTable(products.sortedByPrice());
     }
 
     /**
-     * Sort products by name (alphabetical order)
+     * Show products sorted by name (alphabetical order)
      */
     public static void sortByName() {
-        if (count == 0) {
+        if (products.isEmpty()) {
             System.out.println("No products available to sort!");
             return;
         }
 
-        Arrays.sort(products, 0, count, Comparator.comparing(p -> p.name.toLowerCase()));
         System.out.println("Products sorted by name (alphabetical order)!");
-        viewProducts();
+        printTable(products.sortedByName());
     }
 
     /**
      * Filter products by category (case-insensitive)
+     * Reads the matching bucket from the category index and writes it in one buffered pass
      */
     public static void filterByCategory() {
-        if (count == 0) {
+        if (products.isEmpty()) {
             System.out.println("No products available to filter!");
             return;
         }
@@ -275,34 +316,39 @@ public class AdvancedProductManagementSystem {
         sc.nextLine(); // consume newline
         System.out.print("Enter Category to filter: ");
         String cat = sc.nextLine();
-        boolean found = false;
+        Product[] matches = products.byCategory(cat);
 
         System.out.println("\nFiltered products for category: " + cat);
         System.out.println("=".repeat(75));
         System.out.printf("%-10s %-15s %-10s %-10s %-15s\n", "ID", "Name", "Price", "Quantity", "Category");
         System.out.println("=".repeat(75));
 
-        for (int i = 0; i < count; i++) {
-            if (products[i].category.equalsIgnoreCase(cat)) {
-                products[i].display();
-                found = true;
-            }
+        if (matches.length == 0) {
+            System.out.println("No products found in category: " + cat);
+            return;
         }
 
-        if (!found) {
-            System.out.println("No products found in category: " + cat);
-        } else {
-            System.out.println("=".repeat(75));
+        // Not closed: closing would close System.out
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out));
+        try {
+            for (Product product : matches) {
+                out.write(product.toDisplayString());
+            }
+            out.write("=".repeat(75));
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("Error displaying products: " + e.getMessage());
         }
     }
 
     /**
-     * Save all products to file
+     * Save all products to file (in ID order, so the next load only appends)
      */
     public static void saveToFile() {
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(FILE_NAME))) {
-            for (int i = 0; i < count; i++) {
-                bw.write(products[i].toFileString());
+            for (Product product : products.toArray()) {
+                bw.write(product.toFileString());
                 bw.newLine();
             }
             System.out.println("Data saved successfully to " + FILE_NAME);
@@ -323,9 +369,9 @@ public class AdvancedProductManagementSystem {
 
         try (BufferedReader br = new BufferedReader(new FileReader(FILE_NAME))) {
             String line;
-            count = 0; // Reset count
+            products.clear();
             int lineNumber = 0;
-            while ((line = br.readLine()) != null && count < products.length) {
+            while ((line = br.readLine()) != null) {
                 lineNumber++;
                 line = line.trim(); // Remove leading/trailing whitespace
 
@@ -335,15 +381,15 @@ public class AdvancedProductManagementSystem {
 
                 try {
                     Product product = Product.fromFileString(line);
-                    if (product != null) {
-                        products[count++] = product;
+                    if (product != null && !products.add(product)) {
+                        System.out.println("Duplicate product ID " + product.id + " on line " + lineNumber + ". Skipping this line.");
                     }
                 } catch (Exception e) {
                     System.out.println("Error parsing line " + lineNumber + ": " + line);
                     System.out.println("Reason: " + e.getMessage() + ". Skipping this line.");
                 }
             }
-            System.out.println("Successfully loaded " + count + " products from " + FILE_NAME);
+            System.out.println("Successfully loaded " + products.size() + " products from " + FILE_NAME);
         } catch (IOException e) {
             System.out.println("Error loading file: " + e.getMessage());
         }
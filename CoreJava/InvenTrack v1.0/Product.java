@@ -30,7 +30,16 @@ public class Product {
      * Display product information in formatted table row
      */
     public void display() {
-        System.out.printf("%-10d %-15s %-10.2f %-10d %-15s\n", id, name, price, quantity, category);
+        System.out.print(toDisplayString());
+    }
+
+    /**
+     * Formatted table row, including the line break
+     *
+     * @return table row
+     */
+    public String toDisplayString() {
+        return String.format("%-10d %-15s %-10.2f %-10d %-15s\n", id, name, price, quantity, category);
     }
 
     /**
@@ -0,0 +1,368 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Growable product array kept sorted by product ID
+ * Lookups use binary search; the array doubles when it is full
+ *
+ * Deletes only mark the slot as a tombstone. The gaps are closed in one
+ * compaction pass (a System.arraycopy per run of live products) the next
+ * time the array has to be reordered or listed, so deleting many products
+ * costs one linear pass instead of one shift per delete.
+ *
+ * The store also keeps a category index: one bucket (itself a ProductStore,
+ * without an index) per lower-cased category name.
+ *
+ * Price and name orders are permutations of the slots, built from keys
+ * computed once per product and sorted with a stable merge sort. They are
+ * cached until the next change, so the products themselves stay in ID order.
+ */
+public class ProductStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Product[] items = new Product[INITIAL_CAPACITY];
+    private boolean[] deleted = new boolean[INITIAL_CAPACITY];
+    private int size = 0;          // used slots, including tombstones
+    private int deletedCount = 0;
+
+    // Lower-cased category -> products in that category (null in bucket stores)
+    private final Map<String, ProductStore> categoryIndex;
+
+    // Bumped by every change that can affect the sort orders
+    private int modCount = 0;
+    private int[] priceOrder;
+    private int priceOrderModCount;
+    private int[] nameOrder;
+    private int nameOrderModCount;
+
+    public ProductStore() {
+        this(true);
+    }
+
+    private ProductStore(boolean indexed) {
+        this.categoryIndex = indexed ? new HashMap<>() : null;
+    }
+
+    /**
+     * @return number of products in the store
+     */
+    public int size() {
+        return size - deletedCount;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Binary search by product ID (tombstoned slots keep their ID, so the order holds)
+     *
+     * @param id Product ID
+     * @return slot of the product, or (-(insertion point) - 1) if absent
+     */
+    private int slotOf(int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = items[mid].id;
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @param id Product ID
+     * @return the product, or null if no product has this ID
+     */
+    public Product find(int id) {
+        int slot = slotOf(id);
+        return slot >= 0 && !deleted[slot] ? items[slot] : null;
+    }
+
+    public boolean contains(int id) {
+        return find(id) != null;
+    }
+
+    /**
+     * Insert a product at its ID position
+     *
+     * @param product Product to add
+     * @return false if a product with the same ID already exists
+     */
+    public boolean add(Product product) {
+        int slot = slotOf(product.id);
+        if (slot >= 0) {
+            if (!deleted[slot]) {
+                return false;
+            }
+            // Re-adding a deleted ID reuses its tombstone
+            items[slot] = product;
+            deleted[slot] = false;
+            deletedCount--;
+            modCount++;
+            indexAdd(product);
+            return true;
+        }
+        int insertAt = -(slot + 1);
+        if (insertAt < size && deletedCount > 0) {
+            // The insert shifts the tail anyway; close the gaps first
+            compact();
+            insertAt = -(slotOf(product.id) + 1);
+        }
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            deleted = Arrays.copyOf(deleted, items.length);
+        }
+        System.arraycopy(items, insertAt, items, insertAt + 1, size - insertAt);
+        System.arraycopy(deleted, insertAt, deleted, insertAt + 1, size - insertAt);
+        items[insertAt] = product;
+        deleted[insertAt] = false;
+        size++;
+        modCount++;
+        indexAdd(product);
+        return true;
+    }
+
+    /**
+     * Remove the product with the given ID (marks a tombstone, no shifting)
+     *
+     * @param id Product ID
+     * @return the removed product, or null if not found
+     */
+    public Product remove(int id) {
+        int slot = slotOf(id);
+        if (slot < 0 || deleted[slot]) {
+            return null;
+        }
+        deleted[slot] = true;
+        deletedCount++;
+        modCount++;
+        indexRemove(items[slot]);
+        return items[slot];
+    }
+
+    /**
+     * Remove several products in one batch
+     *
+     * @param ids Product IDs
+     * @return number of products removed
+     */
+    public int removeAll(int[] ids) {
+        int removed = 0;
+        for (int id : ids) {
+            if (remove(id) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Change a product's name (invalidates the cached name order)
+     *
+     * @param product Product in this store
+     * @param name    New name
+     */
+    public void setName(Product product, String name) {
+        product.name = name;
+        modCount++;
+    }
+
+    /**
+     * Change a product's price (invalidates the cached price order)
+     *
+     * @param product Product in this store
+     * @param price   New price
+     */
+    public void setPrice(Product product, double price) {
+        product.price = price;
+        modCount++;
+    }
+
+    /**
+     * Change a product's category and move it to the matching index bucket
+     *
+     * @param product  Product in this store
+     * @param category New category
+     */
+    public void setCategory(Product product, String category) {
+        indexRemove(product);
+        product.category = category;
+        indexAdd(product);
+    }
+
+    /**
+     * Products of one category (case-insensitive), in ID order
+     *
+     * @param category Category name
+     * @return matching products (empty if none)
+     */
+    public Product[] byCategory(String category) {
+        ProductStore bucket = categoryIndex.get(categoryKey(category));
+        return bucket == null ? new Product[0] : bucket.toArray();
+    }
+
+    private static String categoryKey(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void indexAdd(Product product) {
+        if (categoryIndex != null) {
+            categoryIndex.computeIfAbsent(categoryKey(product.category), k -> new ProductStore(false)).add(product);
+        }
+    }
+
+    private void indexRemove(Product product) {
+        if (categoryIndex == null) {
+            return;
+        }
+        String key = categoryKey(product.category);
+        ProductStore bucket = categoryIndex.get(key);
+        if (bucket != null) {
+            bucket.remove(product.id);
+            if (bucket.isEmpty()) {
+                categoryIndex.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Close all tombstone gaps: each run of live products is moved down with
+     * one System.arraycopy
+     */
+    public void compact() {
+        if (deletedCount == 0) {
+            return;
+        }
+        int write = 0;
+        int read = 0;
+        while (read < size) {
+            while (read < size && deleted[read]) {
+                read++;
+            }
+            int runStart = read;
+            while (read < size && !deleted[read]) {
+                read++;
+            }
+            int runLength = read - runStart;
+            if (runLength > 0 && write != runStart) {
+                System.arraycopy(items, runStart, items, write, runLength);
+            }
+            write += runLength;
+        }
+        Arrays.fill(items, write, size, null);
+        Arrays.fill(deleted, 0, size, false);
+        size = write;
+        deletedCount = 0;
+    }
+
+    /**
+     * Products by ascending price (equal prices stay in ID order)
+     *
+     * @return products in price order
+     */
+    public Product[] sortedByPrice() {
+        compact();
+        if (priceOrder == null || priceOrderModCount != modCount) {
+            double[] keys = new double[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = items[i].price;
+            }
+            priceOrder = sortSlots((a, b) -> Double.compare(keys[a], keys[b]));
+            priceOrderModCount = modCount;
+        }
+        return inOrder(priceOrder);
+    }
+
+    /**
+     * Products by name, case-insensitive (equal names stay in ID order)
+     *
+     * @return products in name order
+     */
+    public Product[] sortedByName() {
+        compact();
+        if (nameOrder == null || nameOrderModCount != modCount) {
+            String[] keys = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = items[i].name.toLowerCase(Locale.ROOT);
+            }
+            nameOrder = sortSlots((a, b) -> keys[a].compareTo(keys[b]));
+            nameOrderModCount = modCount;
+        }
+        return inOrder(nameOrder);
+    }
+
+    private interface SlotComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Stable merge sort of the slot numbers 0 to size - 1
+     */
+    private int[] sortSlots(SlotComparator comparator) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int from = 0; from < size - width; from += 2 * width) {
+                int mid = from + width;
+                int to = Math.min(from + 2 * width, size);
+                if (comparator.compare(order[mid - 1], order[mid]) <= 0) {
+                    continue; // runs already in order
+                }
+                int left = from;
+                int right = mid;
+                int out = from;
+                while (left < mid && right < to) {
+                    buffer[out++] = comparator.compare(order[right], order[left]) < 0 ? order[right++] : order[left++];
+                }
+                System.arraycopy(order, left, buffer, out, mid - left);
+                out += mid - left;
+                System.arraycopy(order, right, buffer, out, to - right);
+                System.arraycopy(buffer, from, order, from, to - from);
+            }
+        }
+        return order;
+    }
+
+    private Product[] inOrder(int[] order) {
+        Product[] result = new Product[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = items[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * @return copy of the products in ID order
+     */
+    public Product[] toArray() {
+        compact();
+        return Arrays.copyOf(items, size);
+    }
+
+    /**
+     * Remove all products
+     */
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        Arrays.fill(deleted, 0, size, false);
+        size = 0;
+        deletedCount = 0;
+        modCount++;
+        if (categoryIndex != null) {
+            categoryIndex.clear();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cached wall clock for InvenTrack v2.0
+ *
+ * A daemon thread refreshes a volatile millisecond timestamp every
+ * RESOLUTION_MS, so hot paths such as product updates and movement logging
+ * read one field instead of querying the system clock and allocating.
+ * Timestamps are epoch milliseconds; LocalDateTime is only created for display.
+ */
+public class CoarseClock {
+    public static final long RESOLUTION_MS = 10;
+
+    private static volatile long now = System.currentTimeMillis();
+
+    static {
+        Thread ticker = new Thread(CoarseClock::tick, "coarse-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Current time in epoch milliseconds (at most RESOLUTION_MS old)
+     */
+    public static long millis() {
+        return now;
+    }
+
+    /**
+     * Epoch milliseconds as local date-time in the system time zone
+     */
+    public static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Local date-time in the system time zone as epoch milliseconds
+     */
+    public static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void tick() {
+        while (true) {
+            try {
+                Thread.sleep(RESOLUTION_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            now = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+import java.util.*;
+
+/**
+ * Near-duplicate product detection for InvenTrack v2.0
+ *
+ * Each product name is reduced to a set of shingles (its words plus the
+ * 3-character grams of each word), summarised by a MinHash signature and split
+ * into LSH bands. Only products that share a band bucket within the same
+ * category are compared, so candidate pairs come out in near-linear time
+ * instead of checking every pair of names. Candidates are then verified with
+ * the exact Jaccard similarity of their shingle sets.
+ */
+public class DuplicateDetector {
+    public static final int NUM_HASHES = 32;
+    public static final int BANDS = 8;
+    public static final int ROWS_PER_BAND = NUM_HASHES / BANDS;
+    public static final double DEFAULT_THRESHOLD = 0.6;
+
+    // Buckets larger than this are narrowed with further bands before their
+    // members are compared pairwise, to keep the comparison count near-linear
+    public static final int MAX_BUCKET_SIZE = 100;
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x1DEA5EEDL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * A pair of products with similar names
+     */
+    public static class Candidate {
+        private final Product first;
+        private final Product second;
+        private final double similarity;
+
+        Candidate(Product first, Product second, double similarity) {
+            this.first = first;
+            this.second = second;
+            this.similarity = similarity;
+        }
+
+        public Product getFirst() { return first; }
+        public Product getSecond() { return second; }
+
+        /**
+         * Jaccard similarity of the two names' shingle sets (0..1)
+         */
+        public double getSimilarity() { return similarity; }
+    }
+
+    /**
+     * Find product pairs in the same category whose names are at least
+     * {@code threshold} similar, most similar first
+     */
+    public static List<Candidate> findDuplicates(Map<String, List<Product>> byCategory, double threshold) {
+        List<Candidate> results = new ArrayList<>();
+        for (List<Product> group : byCategory.values()) {
+            if (group.size() > 1) {
+                findInGroup(group, threshold, results);
+            }
+        }
+        results.sort(Comparator.comparingDouble(Candidate::getSimilarity).reversed()
+                .thenComparingInt(c -> c.getFirst().getId()));
+        return results;
+    }
+
+    private static void findInGroup(List<Product> group, double threshold, List<Candidate> results) {
+        new GroupScan(group, threshold, results).run();
+    }
+
+    /**
+     * Candidate search within one category. Products with identical shingle
+     * sets are reported against the first of them (similarity 1) and only that
+     * representative goes through LSH, so repeated names cannot flood a bucket.
+     */
+    private static class GroupScan {
+        private final List<Product> group;
+        private final double threshold;
+        private final List<Candidate> results;
+        private final int[][] shingles;
+        private final int[][] signatures;
+        private final Set<Long> seenPairs = new HashSet<>();
+
+        GroupScan(List<Product> group, double threshold, List<Candidate> results) {
+            this.group = group;
+            this.threshold = threshold;
+            this.results = results;
+            this.shingles = new int[group.size()][];
+            this.signatures = new int[group.size()][];
+        }
+
+        void run() {
+            int n = group.size();
+            for (int i = 0; i < n; i++) {
+                shingles[i] = shingles(group.get(i).getName());
+            }
+
+            List<Integer> representatives = foldIdentical();
+            for (int i : representatives) {
+                signatures[i] = signature(shingles[i]);
+            }
+
+            for (int band = 0; band < BANDS; band++) {
+                for (List<Integer> bucket : bucketize(representatives, band).values()) {
+                    compareBucket(bucket, band, 1);
+                }
+            }
+        }
+
+        /**
+         * Report products whose shingle sets are identical and return one
+         * representative (the first in the group) of each distinct set
+         */
+        private List<Integer> foldIdentical() {
+            Integer[] order = new Integer[group.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> {
+                int bySet = Arrays.compare(shingles[a], shingles[b]);
+                return bySet != 0 ? bySet : Integer.compare(a, b);
+            });
+
+            List<Integer> representatives = new ArrayList<>();
+            int representative = -1;
+            for (int i : order) {
+                if (shingles[i].length == 0) continue;
+                if (representative >= 0 && Arrays.equals(shingles[i], shingles[representative])) {
+                    results.add(new Candidate(group.get(representative), group.get(i), 1.0));
+                } else {
+                    representative = i;
+                    representatives.add(i);
+                }
+            }
+            return representatives;
+        }
+
+        private Map<Long, List<Integer>> bucketize(List<Integer> members, int band) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i : members) {
+                buckets.computeIfAbsent(bandKey(signatures[i], band), k -> new ArrayList<>(2)).add(i);
+            }
+            return buckets;
+        }
+
+        /**
+         * Compare the members of a bucket pairwise. An oversized bucket is first
+         * split by the next band as well, so only members that agree on more of
+         * their signature (the likelier duplicates) are compared; once every
+         * band is used, the remaining members are compared in full.
+         */
+        private void compareBucket(List<Integer> bucket, int band, int bandsUsed) {
+            if (bucket.size() < 2) return;
+            if (bucket.size() > MAX_BUCKET_SIZE && bandsUsed < BANDS) {
+                int nextBand = (band + bandsUsed) % BANDS;
+                for (List<Integer> part : bucketize(bucket, nextBand).values()) {
+                    compareBucket(part, band, bandsUsed + 1);
+                }
+                return;
+            }
+
+            for (int x = 0; x < bucket.size(); x++) {
+                for (int y = x + 1; y < bucket.size(); y++) {
+                    int i = Math.min(bucket.get(x), bucket.get(y));
+                    int j = Math.max(bucket.get(x), bucket.get(y));
+                    if (!seenPairs.add(((long) i << 32) | j)) continue;
+
+                    double similarity = jaccard(shingles[i], shingles[j]);
+                    if (similarity >= threshold) {
+                        results.add(new Candidate(group.get(i), group.get(j), similarity));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted, distinct shingle hashes of a name: every word and every
+     * 3-character gram inside the words (case-insensitive)
+     */
+    static int[] shingles(String name) {
+        String[] words = name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        int[] hashes = new int[16];
+        int count = 0;
+        for (String word : words) {
+            if (word.isEmpty()) continue;
+            if (count + word.length() + 1 > hashes.length) {
+                hashes = Arrays.copyOf(hashes, (count + word.length() + 1) * 2);
+            }
+            hashes[count++] = word.hashCode();
+            for (int i = 0; i + SHINGLE_SIZE <= word.length(); i++) {
+                // Odd multiplier keeps grams apart from whole words with the same text
+                hashes[count++] = word.substring(i, i + SHINGLE_SIZE).hashCode() * 31 + 17;
+            }
+        }
+
+        int[] sorted = Arrays.copyOf(hashes, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    /**
+     * MinHash signature: for each seeded hash function, the minimum over all shingles
+     */
+    static int[] signature(int[] shingles) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int h = 0; h < NUM_HASHES; h++) {
+                int value = (int) (mix(shingle ^ SEEDS[h]) >>> 33);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Bucket key of one band: the band's rows hashed together with the band number
+     */
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        int start = band * ROWS_PER_BAND;
+        for (int r = start; r < start + ROWS_PER_BAND; r++) {
+            key = mix(key * 31 + signature[r]);
+        }
+        return key;
+    }
+
+    /**
+     * Exact Jaccard similarity of two sorted, distinct arrays
+     */
+    static double jaccard(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    /**
+     * 64-bit finalizer (SplitMix64)
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
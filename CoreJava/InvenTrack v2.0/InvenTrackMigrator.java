@@ -0,0 +1,432 @@
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Bulk migration of InvenTrack v1.0 data files to InvenTrack v2.0
+ *
+ * Reads the 5-field v1.0 format (id,name,price,quantity,category) in a single
+ * pass and writes either the 7-field v2.0 text file or the binary .dat file.
+ * Lines are parsed and validated in parallel, chunk by chunk; chunks are
+ * written back in input order. Only a bounded number of chunks is in flight,
+ * so memory use does not depend on the size of the input. Invalid lines go to
+ * a reject file together with their line number and the reason. v1.0 wrote its
+ * file in the platform charset; lines that do not decode in the input charset
+ * (UTF-8 unless --charset is given) are rejected rather than failing the run.
+ *
+ * All migrated products get the same createdAt/updatedAt: the migration time.
+ *
+ * Usage: java InvenTrackMigrator [v1 file] [output file] [--binary] [--threads N] [--charset NAME]
+ */
+public class InvenTrackMigrator {
+    public static final String DEFAULT_INPUT = "products.txt";
+    public static final String DEFAULT_TEXT_OUTPUT = "inventrackv2_products.txt";
+    public static final String DEFAULT_BINARY_OUTPUT = "inventrackv2_products.dat";
+    public static final int CHUNK_LINES = 8192;
+
+    // Decoders replace undecodable bytes with this character; such lines are rejected
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private static final Future<Converted> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    public static void main(String[] args) {
+        List<String> files = new ArrayList<>();
+        boolean binary = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Charset charset = StandardCharsets.UTF_8;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--binary" -> binary = true;
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                case "--charset" -> charset = Charset.forName(args[++i]);
+                default -> files.add(args[i]);
+            }
+        }
+
+        Path input = Paths.get(files.size() > 0 ? files.get(0) : DEFAULT_INPUT);
+        Path output = Paths.get(files.size() > 1 ? files.get(1)
+                : binary ? DEFAULT_BINARY_OUTPUT : DEFAULT_TEXT_OUTPUT);
+        Path rejects = Paths.get(output + ".rejects.txt");
+
+        UIConstants.printHeader("INVENTRACK v1.0 → v2.0 MIGRATION");
+        System.out.printf("Input: %s (%s) | Output: %s (%s) | Threads: %d\n\n",
+                input, charset.name(), output, binary ? "binary" : "text", threads);
+
+        try {
+            Result result = migrate(input, charset, output, rejects, binary, threads);
+            double seconds = result.nanos / 1e9;
+            UIConstants.printSuccess(String.format("Migrated %,d of %,d records in %.2f s (%,.0f lines/s)",
+                    result.migrated, result.lines, seconds, result.lines / Math.max(seconds, 1e-9)));
+            if (result.remappedCategories > 0) {
+                UIConstants.printWarning(result.remappedCategories + " record(s) with unknown categories moved to 'Others'");
+            }
+            if (result.rejected > 0) {
+                UIConstants.printWarning(result.rejected + " record(s) rejected, see " + rejects);
+            }
+        } catch (IOException | RuntimeException e) {
+            UIConstants.printError("Migration failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Convert a v1.0 file. The output is only replaced once the whole input
+     * has been processed; the reject file is deleted if nothing was rejected.
+     */
+    public static Result migrate(Path input, Charset charset, Path output, Path rejects, boolean binary,
+                                 int threads) throws IOException {
+        long start = System.nanoTime();
+        long migratedAt = System.currentTimeMillis() / 1000 * 1000; // whole seconds, as in the text format
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        BlockingQueue<Future<Converted>> inFlight = new ArrayBlockingQueue<>(threads * 2);
+        ChunkReader reader = new ChunkReader(input, charset, workers, inFlight, migratedAt);
+        Thread readerThread = new Thread(reader, "migration-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        Result result = new Result();
+        IdRegistry ids = new IdRegistry();
+        Path textTemp = Paths.get(output + ".tmp");
+        boolean completed = false;
+
+        try (ProductSink sink = binary ? new BinarySink(output) : new TextSink(textTemp);
+             BufferedWriter rejectWriter = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)) {
+
+            while (true) {
+                Future<Converted> next = inFlight.take();
+                if (next == END_OF_INPUT) break;
+
+                Converted chunk = next.get();
+                result.lines += chunk.lineCount;
+                result.remappedCategories += chunk.remappedCategories;
+                for (String reject : chunk.rejects) {
+                    rejectWriter.write(reject);
+                    rejectWriter.newLine();
+                    result.rejected++;
+                }
+                for (int i = 0; i < chunk.products.size(); i++) {
+                    Product product = chunk.products.get(i);
+                    if (!ids.add(product.getId())) {
+                        rejectWriter.write(chunk.lineNumbers[i] + ": duplicate product ID " + product.getId());
+                        rejectWriter.newLine();
+                        result.rejected++;
+                        continue;
+                    }
+                    sink.write(product);
+                    result.migrated++;
+                }
+            }
+            if (reader.failure != null) {
+                throw reader.failure;
+            }
+            sink.finish();
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Migration interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Worker failed: " + e.getCause(), e.getCause());
+        } finally {
+            readerThread.interrupt();
+            workers.shutdownNow();
+            if (!completed && !binary) {
+                Files.deleteIfExists(textTemp);
+            }
+        }
+
+        if (!binary) {
+            try {
+                Files.move(textTemp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(textTemp, output, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (result.rejected == 0) {
+            Files.deleteIfExists(rejects);
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Parse and validate one chunk of v1.0 lines (runs on a worker thread)
+     */
+    static Converted convert(String[] lines, int count, long firstLine, long migratedAt) {
+        Converted converted = new Converted(count);
+        for (int i = 0; i < count; i++) {
+            long lineNumber = firstLine + i;
+            String line = lines[i];
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (line.indexOf(REPLACEMENT) >= 0) {
+                converted.reject(lineNumber, "bytes not valid in the input charset (see --charset)", line);
+                continue;
+            }
+            String[] parts = line.split(",", -1);
+            if (parts.length != 5) {
+                converted.reject(lineNumber, "expected 5 fields, found " + parts.length, line);
+                continue;
+            }
+
+            int id;
+            long priceCents;
+            int quantity;
+            try {
+                id = Integer.parseInt(parts[0].trim());
+            } catch (NumberFormatException e) {
+                converted.reject(lineNumber, "invalid product ID", line);
+                continue;
+            }
+            String name = parts[1].trim();
+            if (name.isEmpty()) {
+                converted.reject(lineNumber, "empty product name", line);
+                continue;
+            }
+            try {
+                priceCents = Money.parse(parts[2]);
+            } catch (NumberFormatException | ArithmeticException e) {
+                converted.reject(lineNumber, "invalid price", line);
+                continue;
+            }
+            if (priceCents < 0) {
+                converted.reject(lineNumber, "negative price", line);
+                continue;
+            }
+            try {
+                quantity = Integer.parseInt(parts[3].trim());
+            } catch (NumberFormatException e) {
+                converted.reject(lineNumber, "invalid quantity", line);
+                continue;
+            }
+            if (quantity < 0) {
+                converted.reject(lineNumber, "negative quantity", line);
+                continue;
+            }
+
+            String category = canonicalCategory(parts[4].trim());
+            if (category == null) {
+                category = "Others";
+                converted.remappedCategories++;
+            }
+
+            converted.add(lineNumber,
+                    new Product(id, name, priceCents, quantity, category, migratedAt, migratedAt));
+        }
+        return converted;
+    }
+
+    /**
+     * The matching entry of Product.VALID_CATEGORIES, or null if there is none
+     */
+    private static String canonicalCategory(String category) {
+        for (String valid : Product.VALID_CATEGORIES) {
+            if (valid.equalsIgnoreCase(category)) {
+                return valid;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the input in chunks and hands them to the workers. Blocks while
+     * the in-flight queue is full, which bounds memory.
+     */
+    private static class ChunkReader implements Runnable {
+        private final Path input;
+        private final Charset charset;
+        private final ExecutorService workers;
+        private final BlockingQueue<Future<Converted>> inFlight;
+        private final long migratedAt;
+        volatile IOException failure;
+
+        ChunkReader(Path input, Charset charset, ExecutorService workers,
+                    BlockingQueue<Future<Converted>> inFlight, long migratedAt) {
+            this.input = input;
+            this.charset = charset;
+            this.workers = workers;
+            this.inFlight = inFlight;
+            this.migratedAt = migratedAt;
+        }
+
+        @Override
+        public void run() {
+            // Replace bad bytes instead of throwing, so one line cannot abort the run
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(Files.newInputStream(input),
+                    charset.newDecoder()
+                            .onMalformedInput(CodingErrorAction.REPLACE)
+                            .onUnmappableCharacter(CodingErrorAction.REPLACE)), 1 << 16)) {
+                long lineNumber = 1;
+                while (true) {
+                    String[] lines = new String[CHUNK_LINES];
+                    int count = 0;
+                    String line;
+                    while (count < CHUNK_LINES && (line = in.readLine()) != null) {
+                        lines[count++] = line;
+                    }
+                    if (count == 0) break;
+
+                    long firstLine = lineNumber;
+                    int chunkSize = count;
+                    inFlight.put(workers.submit(() -> convert(lines, chunkSize, firstLine, migratedAt)));
+                    lineNumber += count;
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                inFlight.put(END_OF_INPUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Output of one chunk: valid products (with their line numbers) and rejects
+     */
+    static class Converted {
+        final List<Product> products;
+        final long[] lineNumbers;
+        final List<String> rejects = new ArrayList<>();
+        final int lineCount;
+        int remappedCategories;
+
+        Converted(int lineCount) {
+            this.lineCount = lineCount;
+            this.products = new ArrayList<>(lineCount);
+            this.lineNumbers = new long[lineCount];
+        }
+
+        void add(long lineNumber, Product product) {
+            lineNumbers[products.size()] = lineNumber;
+            products.add(product);
+        }
+
+        void reject(long lineNumber, String reason, String line) {
+            rejects.add(lineNumber + ": " + reason + " | " + line);
+        }
+    }
+
+    /**
+     * Product IDs already written: an open-addressing int hash set (linear
+     * probing, at most half full), so memory follows the number of products
+     * rather than the size of the largest ID
+     */
+    private static class IdRegistry {
+        private static final int EMPTY = 0; // ID 0 is tracked separately
+
+        private int[] slots = new int[1024];
+        private int size = 0;
+        private boolean hasZero = false;
+
+        boolean add(int id) {
+            if (id == EMPTY) {
+                if (hasZero) return false;
+                hasZero = true;
+                return true;
+            }
+            if ((size + 1) * 2 > slots.length) {
+                grow();
+            }
+            if (!insert(slots, id)) return false;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            int[] larger = new int[slots.length * 2];
+            for (int id : slots) {
+                if (id != EMPTY) insert(larger, id);
+            }
+            slots = larger;
+        }
+
+        private static boolean insert(int[] table, int id) {
+            int mask = table.length - 1;
+            int h = id * 0x9E3779B9;
+            for (int i = (h ^ (h >>> 16)) & mask; ; i = (i + 1) & mask) {
+                if (table[i] == id) return false;
+                if (table[i] == EMPTY) {
+                    table[i] = id;
+                    return true;
+                }
+            }
+        }
+    }
+
+    private interface ProductSink extends Closeable {
+        void write(Product product) throws IOException;
+        void finish() throws IOException;
+    }
+
+    /**
+     * 7-field v2.0 text format
+     */
+    private static class TextSink implements ProductSink {
+        private final BufferedWriter writer;
+
+        TextSink(Path file) throws IOException {
+            this.writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        public void write(Product product) throws IOException {
+            writer.write(product.toFileString());
+            writer.newLine();
+        }
+
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Binary .dat format (see MappedProductFile)
+     */
+    private static class BinarySink implements ProductSink {
+        private final MappedProductFile.StreamWriter writer;
+
+        BinarySink(Path file) throws IOException {
+            this.writer = new MappedProductFile.StreamWriter(file.toString());
+        }
+
+        public void write(Product product) throws IOException {
+            writer.append(product);
+        }
+
+        public void finish() throws IOException {
+            writer.finish();
+        }
+
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Migration counters
+     */
+    public static class Result {
+        long lines;
+        long migrated;
+        long rejected;
+        long remappedCategories;
+        long nanos;
+
+        public long getLines() { return lines; }
+        public long getMigrated() { return migrated; }
+        public long getRejected() { return rejected; }
+        public long getRemappedCategories() { return remappedCategories; }
+    }
+}
@@ -1,13 +1,16 @@
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * InvenTrack v2.0 - Advanced Inventory Management System
  * Enhanced with Collections Framework and Rich Console UI
  * 
  * New Features:
- * - Collections framework (ArrayList, HashMap)
+ * - Collections framework (ArrayList, TreeMap)
  * - Enhanced UI with colors and formatting
  * - Advanced search and filtering
  * - Statistics and analytics
@@ -17,19 +20,42 @@ import java.util.stream.Collectors;
 public class InvenTrackSystem {
     // Core data structures
     private static List<Product> products = new ArrayList<>();
-    private static Map<String, List<Product>> categoryIndex = new HashMap<>();
+    // Category registry: ordered by name (case-insensitive), bucket size = product count
+    private static NavigableMap<String, List<Product>> categoryIndex = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     private static Scanner scanner = new Scanner(System.in);
     private static final String FILE_NAME = "inventrackv2_products.txt";
     private static final String VERSION = "2.0";
+    private static final long HIGH_VALUE_CENTS = 1000 * Money.CENTS_PER_UNIT; // "high value" filter threshold
+
+    // Fixed filters, shared by the filter menu and exports
+    private static final Predicate<Product> LOW_STOCK_QUERY = p -> p.getQuantity() <= 5 && p.getQuantity() > 0;
+    private static final Predicate<Product> OUT_OF_STOCK_QUERY = p -> p.getQuantity() == 0;
+    private static final Predicate<Product> HIGH_VALUE_QUERY = p -> p.getPriceCents() > HIGH_VALUE_CENTS;
+
+    // Storage mode: "text" (single file), "sharded" or "mapped" (-Dinventrack.storage=...)
+    private static final String STORAGE_MODE = System.getProperty("inventrack.storage", "text");
+    private static final int SHARD_COUNT = Integer.getInteger("inventrack.shards", 8);
+    private static final String DATA_FILE_NAME = "inventrackv2_products.dat";
+    private static PartitionedStore shardStore = "sharded".equalsIgnoreCase(STORAGE_MODE)
+            ? new PartitionedStore(FILE_NAME, SHARD_COUNT)
+            : null;
+    private static final boolean MAPPED_STORAGE = "mapped".equalsIgnoreCase(STORAGE_MODE);
+    private static MappedProductList mappedProducts;
+    private static boolean categoryIndexPending = false;
+
+    // Stock alerts pushed by StockAlertStream, newest first
+    private static final int ALERT_INBOX_SIZE = 100;
+    private static final Deque<StockAlertStream.StockAlert> alertInbox = new ConcurrentLinkedDeque<>();
 
     public static void main(String[] args) {
         displayWelcome();
         loadFromFile();
+        StockAlertStream.subscribe(InvenTrackSystem::receiveAlert);
 
         int choice;
         do {
             displayMainMenu();
-            choice = getValidChoice(1, 11);
+            choice = getValidChoice(1, 12);
 
             switch (choice) {
                 case 1 -> addProduct();
@@ -42,9 +68,10 @@ public class InvenTrackSystem {
                 case 8 -> bulkOperations();
                 case 9 -> showStatistics();
                 case 10 -> showSystemInfo();
-                case 11 -> exitSystem();
+                case 11 -> reportsMenu();
+                case 12 -> exitSystem();
             }
-        } while (choice != 11);
+        } while (choice != 12);
     }
 
     /**
@@ -106,22 +133,37 @@ public class InvenTrackSystem {
                         + "  %s5.%s Delete Product         %s10.%s System Information" + " ".repeat(30)
                         + UIConstants.CYAN + "│" + UIConstants.RESET + "\n",
                 UIConstants.GREEN, UIConstants.RESET, UIConstants.GREEN, UIConstants.RESET);
+        System.out.printf(
+                UIConstants.CYAN + "│" + UIConstants.RESET + "  %s11.%s Reports & Analytics" + " ".repeat(60)
+                        + UIConstants.CYAN + "│" + UIConstants.RESET + "\n",
+                UIConstants.GREEN, UIConstants.RESET);
         System.out.println(UIConstants.CYAN
                 + "├─────────────────────────────────────────────────────────────────────────────────────┤"
                 + UIConstants.RESET);
         System.out.printf(
-                UIConstants.CYAN + "│" + UIConstants.RESET + "  %s11.%s Save & Exit" + " ".repeat(68) + UIConstants.CYAN
+                UIConstants.CYAN + "│" + UIConstants.RESET + "  %s12.%s Save & Exit" + " ".repeat(68) + UIConstants.CYAN
                         + "│" + UIConstants.RESET + "\n",
                 UIConstants.RED, UIConstants.RESET);
         System.out.println(UIConstants.CYAN
                 + "└─────────────────────────────────────────────────────────────────────────────────────┘"
                 + UIConstants.RESET);
 
-        System.out.printf("\n%sTotal Products: %s%d%s | %sCategories: %s%d%s\n",
+        System.out.printf("\n%sTotal Products: %s%d%s | %sCategories: %s%d%s",
                 UIConstants.YELLOW, UIConstants.BOLD, products.size(), UIConstants.RESET,
-                UIConstants.YELLOW, UIConstants.BOLD, categoryIndex.size(), UIConstants.RESET);
+                UIConstants.YELLOW, UIConstants.BOLD, getCategoryCount(), UIConstants.RESET);
+        if (!categoryIndexPending) {
+            // Running totals, O(1) on every menu refresh
+            System.out.printf(" | %sUnits: %s%d%s | %sLow/Out: %s%d%s",
+                    UIConstants.YELLOW, UIConstants.BOLD, InventoryTotals.getTotalUnits(), UIConstants.RESET,
+                    UIConstants.YELLOW, UIConstants.BOLD, InventoryTotals.getLevelCount(Product.LOW_STOCK)
+                            + InventoryTotals.getLevelCount(Product.OUT_OF_STOCK), UIConstants.RESET);
+        }
+        System.out.println();
+        if (!alertInbox.isEmpty()) {
+            UIConstants.printWarning(alertInbox.size() + " stock alert(s) - see Reports & Analytics");
+        }
 
-        System.out.print(UIConstants.BOLD + "\nEnter your choice (1-11): " + UIConstants.RESET);
+        System.out.print(UIConstants.BOLD + "\nEnter your choice (1-12): " + UIConstants.RESET);
     }
 
     /**
@@ -153,7 +195,7 @@ public class InvenTrackSystem {
             }
 
             System.out.print("Enter Price ($): ");
-            double price = scanner.nextDouble();
+            double price = readAmount();
             if (price < 0) {
                 UIConstants.printError("Price cannot be negative!");
                 UIConstants.waitForEnter();
@@ -184,8 +226,9 @@ public class InvenTrackSystem {
 
             // Create and add product
             Product product = new Product(id, name, price, quantity, category);
-            products.add(product);
+            changeCatalog(() -> products.add(product));
             updateCategoryIndex(product);
+            markShardDirty(product);
 
             UIConstants.printSuccess("Product added successfully!");
             System.out.println("\nProduct Details:");
@@ -211,12 +254,14 @@ public class InvenTrackSystem {
             return;
         }
 
+        InventorySnapshot snapshot = InventorySnapshot.capture(products);
+
         // Display summary statistics
         System.out.printf("%sInventory Summary:%s\n", UIConstants.BOLD, UIConstants.RESET);
-        System.out.printf("Total Products: %s%d%s | Total Value: %s$%.2f%s | Categories: %s%d%s\n\n",
-                UIConstants.GREEN, products.size(), UIConstants.RESET,
-                UIConstants.GREEN, getTotalInventoryValue(), UIConstants.RESET,
-                UIConstants.GREEN, categoryIndex.size(), UIConstants.RESET);
+        System.out.printf("Total Products: %s%d%s | Total Value: %s$%s%s | Categories: %s%d%s\n\n",
+                UIConstants.GREEN, snapshot.size(), UIConstants.RESET,
+                UIConstants.GREEN, Money.format(snapshot.getTotalValueCents()), UIConstants.RESET,
+                UIConstants.GREEN, getCategoryCount(), UIConstants.RESET);
 
         // Table header
         System.out.println(UIConstants.CYAN + UIConstants.TABLE_BORDER + UIConstants.RESET);
@@ -226,10 +271,12 @@ public class InvenTrackSystem {
                 UIConstants.RESET);
         System.out.println(UIConstants.CYAN + UIConstants.TABLE_BORDER + UIConstants.RESET);
 
-        // Display products
-        for (Product product : products) {
-            product.display();
+        // Display products (cached rows, printed in one write)
+        StringBuilder table = new StringBuilder(snapshot.size() * 96);
+        for (Product product : snapshot.getProducts()) {
+            table.append(product.getDisplayRow());
         }
+        System.out.print(table);
 
         System.out.println(UIConstants.CYAN + UIConstants.TABLE_BORDER + UIConstants.RESET);
 
@@ -289,33 +336,61 @@ public class InvenTrackSystem {
      * Search by name (partial matching)
      */
     private static List<Product> searchByName() {
+        return select(readNameQuery());
+    }
+
+    /**
+     * Search by price range
+     */
+    private static List<Product> searchByPriceRange() {
+        return select(readPriceRangeQuery());
+    }
+
+    /**
+     * Advanced search with multiple criteria
+     */
+    private static List<Product> advancedSearch() {
+        return select(readAdvancedQuery());
+    }
+
+    /**
+     * Collect the products matching a query
+     */
+    private static List<Product> select(Predicate<Product> query) {
+        return products.stream()
+                .filter(query)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Prompt for a partial product name
+     */
+    private static Predicate<Product> readNameQuery() {
         scanner.nextLine(); // consume newline
         System.out.print("Enter product name (partial matching): ");
         String name = scanner.nextLine().toLowerCase();
 
-        return products.stream()
-                .filter(p -> p.getName().toLowerCase().contains(name))
-                .collect(Collectors.toList());
+        return p -> p.getName().toLowerCase().contains(name);
     }
 
     /**
-     * Search by price range
+     * Prompt for a price range
      */
-    private static List<Product> searchByPriceRange() {
+    private static Predicate<Product> readPriceRangeQuery() {
         System.out.print("Enter minimum price: ");
-        double minPrice = scanner.nextDouble();
+        double minPrice = readAmount();
         System.out.print("Enter maximum price: ");
-        double maxPrice = scanner.nextDouble();
+        double maxPrice = readAmount();
 
-        return products.stream()
-                .filter(p -> p.getPrice() >= minPrice && p.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        long minCents = Money.toCents(minPrice);
+        long maxCents = Money.toCents(maxPrice);
+        return p -> p.getPriceCents() >= minCents && p.getPriceCents() <= maxCents;
     }
 
     /**
-     * Advanced search with multiple criteria
+     * Prompt for the advanced search criteria
      */
-    private static List<Product> advancedSearch() {
+    private static Predicate<Product> readAdvancedQuery() {
         scanner.nextLine(); // consume newline
         System.out.print("Enter category (or press Enter to skip): ");
         String category = scanner.nextLine().trim();
@@ -324,13 +399,12 @@ public class InvenTrackSystem {
         int minQty = scanner.nextInt();
 
         System.out.print("Enter maximum price (or -1 to skip): ");
-        double maxPrice = scanner.nextDouble();
+        double maxPrice = readAmount();
+        long maxCents = maxPrice == -1 ? -1 : Money.toCents(maxPrice);
 
-        return products.stream()
-                .filter(p -> category.isEmpty() || p.getCategory().equalsIgnoreCase(category))
-                .filter(p -> minQty == -1 || p.getQuantity() >= minQty)
-                .filter(p -> maxPrice == -1 || p.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        return p -> (category.isEmpty() || p.getCategory().equalsIgnoreCase(category))
+                && (minQty == -1 || p.getQuantity() >= minQty)
+                && (maxCents == -1 || p.getPriceCents() <= maxCents);
     }
 
     /**
@@ -389,7 +463,7 @@ public class InvenTrackSystem {
         }
 
         System.out.print("Enter new price (press -1 to keep current): ");
-        double newPrice = scanner.nextDouble();
+        double newPrice = readAmount();
         if (newPrice >= 0) {
             product.setPrice(newPrice);
         }
@@ -447,8 +521,10 @@ public class InvenTrackSystem {
         String confirm = scanner.nextLine().trim().toLowerCase();
 
         if (confirm.equals("yes") || confirm.equals("y")) {
-            products.remove(product);
+            changeCatalog(() -> products.remove(product));
             removeCategoryIndex(product);
+            markShardDirty(product);
+            StockMovementLog.forget(product.getId());
             UIConstants.printSuccess("Product deleted successfully!");
         } else {
             UIConstants.printInfo("Delete operation cancelled.");
@@ -480,26 +556,60 @@ public class InvenTrackSystem {
         System.out.println("8. Quantity (High to Low)");
         System.out.println("9. Category");
         System.out.println("10. Stock Status");
+        System.out.println("11. Custom (multiple keys)");
 
-        int choice = getValidChoice(1, 10);
+        int choice = getValidChoice(1, 11);
 
         switch (choice) {
-            case 1 -> products.sort(Comparator.comparingInt(Product::getId));
-            case 2 -> products.sort(Comparator.comparingInt(Product::getId).reversed());
-            case 3 -> products.sort(Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER));
-            case 4 -> products.sort(Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER).reversed());
-            case 5 -> products.sort(Comparator.comparingDouble(Product::getPrice));
-            case 6 -> products.sort(Comparator.comparingDouble(Product::getPrice).reversed());
-            case 7 -> products.sort(Comparator.comparingInt(Product::getQuantity));
-            case 8 -> products.sort(Comparator.comparingInt(Product::getQuantity).reversed());
-            case 9 -> products.sort(Comparator.comparing(Product::getCategory, String.CASE_INSENSITIVE_ORDER));
-            case 10 -> products.sort(Comparator.comparing(Product::getStockStatus));
+            case 1 -> sortCatalog(ProductSorter.SortKey.ID, false);
+            case 2 -> sortCatalog(ProductSorter.SortKey.ID, true);
+            case 3 -> sortCatalog(ProductSorter.SortKey.NAME, false);
+            case 4 -> sortCatalog(ProductSorter.SortKey.NAME, true);
+            case 5 -> sortCatalog(ProductSorter.SortKey.PRICE, false);
+            case 6 -> sortCatalog(ProductSorter.SortKey.PRICE, true);
+            case 7 -> sortCatalog(ProductSorter.SortKey.QUANTITY, false);
+            case 8 -> sortCatalog(ProductSorter.SortKey.QUANTITY, true);
+            case 9 -> sortCatalog(ProductSorter.SortKey.CATEGORY, false);
+            case 10 -> sortCatalog(ProductSorter.SortKey.STATUS, false);
+            case 11 -> {
+                if (!customSort()) {
+                    UIConstants.waitForEnter();
+                    return;
+                }
+            }
         }
 
         UIConstants.printSuccess("Products sorted successfully!");
         viewAllProducts();
     }
 
+    /**
+     * Reorder the catalog by a single key
+     */
+    private static void sortCatalog(ProductSorter.SortKey key, boolean descending) {
+        changeCatalog(() -> ProductSorter.sort(products, key, descending));
+    }
+
+    /**
+     * Multi-key sort, e.g. "category,-price,name"
+     */
+    private static boolean customSort() {
+        scanner.nextLine(); // consume newline
+        System.out.println("Keys: " + ProductSorter.KEY_HELP + " (prefix with - for descending)");
+        System.out.print("Enter sort keys (e.g. category,-price,name): ");
+        String spec = scanner.nextLine();
+
+        try {
+            List<ProductSorter.SortField> fields = ProductSorter.parseSpec(spec);
+            changeCatalog(() -> ProductSorter.sort(products, fields));
+            UIConstants.printInfo("Sorted by " + fields);
+            return true;
+        } catch (IllegalArgumentException e) {
+            UIConstants.printError(e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Advanced filtering menu
      */
@@ -537,34 +647,49 @@ public class InvenTrackSystem {
     }
 
     /**
-     * Filter by category
+     * Filter by category using the category registry
      */
     private static List<Product> filterByCategory() {
+        // Read-only view of the indexed bucket, no copying
+        return Collections.unmodifiableList(readCategoryBucket());
+    }
+
+    /**
+     * Prompt for a category and return its bucket of the category registry
+     */
+    private static List<Product> readCategoryBucket() {
+        return categoryIndex.get(readCategoryName());
+    }
+
+    /**
+     * Prompt for one of the registered categories
+     */
+    private static String readCategoryName() {
+        ensureCategoryIndex();
         System.out.println("\nAvailable Categories:");
-        Set<String> categories = products.stream()
-                .map(Product::getCategory)
-                .collect(Collectors.toSet());
+        List<String> categories = new ArrayList<>(categoryIndex.keySet());
 
-        int index = 1;
-        Map<Integer, String> categoryMap = new HashMap<>();
-        for (String category : categories) {
-            System.out.println(index + ". " + category);
-            categoryMap.put(index++, category);
+        for (int i = 0; i < categories.size(); i++) {
+            System.out.printf("%d. %s (%d)\n", i + 1, categories.get(i), categoryIndex.get(categories.get(i)).size());
         }
 
         System.out.print("Select category number: ");
         int catChoice = getValidChoice(1, categories.size());
-        String selectedCategory = categoryMap.get(catChoice);
 
-        return products.stream()
-                .filter(p -> p.getCategory().equals(selectedCategory))
-                .collect(Collectors.toList());
+        return categories.get(catChoice - 1);
     }
 
     /**
      * Filter by stock status
      */
     private static List<Product> filterByStockStatus() {
+        return select(readStockStatusQuery());
+    }
+
+    /**
+     * Prompt for a stock status
+     */
+    private static Predicate<Product> readStockStatusQuery() {
         System.out.println("\nStock Status Options:");
         System.out.println("1. Out of Stock");
         System.out.println("2. Low Stock");
@@ -575,50 +700,35 @@ public class InvenTrackSystem {
         String[] statuses = { "OUT_OF_STOCK", "LOW_STOCK", "MEDIUM_STOCK", "HIGH_STOCK" };
         String selectedStatus = statuses[choice - 1];
 
-        return products.stream()
-                .filter(p -> p.getStockStatus().equals(selectedStatus))
-                .collect(Collectors.toList());
+        return p -> p.getStockStatus().equals(selectedStatus);
     }
 
     /**
      * Filter by price range
      */
     private static List<Product> filterByPriceRange() {
-        System.out.print("Enter minimum price: ");
-        double minPrice = scanner.nextDouble();
-        System.out.print("Enter maximum price: ");
-        double maxPrice = scanner.nextDouble();
-
-        return products.stream()
-                .filter(p -> p.getPrice() >= minPrice && p.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        return select(readPriceRangeQuery());
     }
 
     /**
      * Filter low stock items
      */
     private static List<Product> filterLowStock() {
-        return products.stream()
-                .filter(p -> p.getQuantity() <= 5 && p.getQuantity() > 0)
-                .collect(Collectors.toList());
+        return select(LOW_STOCK_QUERY);
     }
 
     /**
      * Filter out of stock items
      */
     private static List<Product> filterOutOfStock() {
-        return products.stream()
-                .filter(p -> p.getQuantity() == 0)
-                .collect(Collectors.toList());
+        return select(OUT_OF_STOCK_QUERY);
     }
 
     /**
      * Filter high value items
      */
     private static List<Product> filterHighValue() {
-        return products.stream()
-                .filter(p -> p.getPrice() > 1000)
-                .collect(Collectors.toList());
+        return select(HIGH_VALUE_QUERY);
     }
 
     /**
@@ -663,6 +773,7 @@ public class InvenTrackSystem {
         System.out.println("5. Restock low inventory items");
 
         int choice = getValidChoice(1, 5);
+        ensureCategoryIndex();
 
         switch (choice) {
             case 1 -> bulkUpdatePrices();
@@ -693,15 +804,14 @@ public class InvenTrackSystem {
         }
 
         System.out.print("Enter percentage change (+/-): ");
-        double percentage = scanner.nextDouble();
+        double percentage = readAmount();
 
         List<Product> categoryProducts = categoryIndex.get(category);
         int updated = 0;
 
+        // Each new price is rounded half-even to the cent, so repeated updates don't drift
         for (Product product : categoryProducts) {
-            double oldPrice = product.getPrice();
-            double newPrice = oldPrice * (1 + percentage / 100);
-            product.setPrice(newPrice);
+            product.setPriceCents(Money.applyPercent(product.getPriceCents(), percentage));
             updated++;
         }
 
@@ -762,8 +872,11 @@ public class InvenTrackSystem {
         String confirm = scanner.nextLine().trim().toLowerCase();
 
         if (confirm.equals("yes") || confirm.equals("y")) {
-            products.removeAll(categoryProducts);
+            changeCatalog(() -> products.removeAll(categoryProducts));
             categoryIndex.remove(category);
+            categoryProducts.forEach(InventoryTotals::onRemoved);
+            categoryProducts.forEach(InvenTrackSystem::markShardDirty);
+            categoryProducts.forEach(p -> StockMovementLog.forget(p.getId()));
             UIConstants
                     .printSuccess("Deleted " + categoryProducts.size() + " products from category '" + category + "'");
         } else {
@@ -776,13 +889,14 @@ public class InvenTrackSystem {
      */
     private static void applyBulkDiscount() {
         System.out.print("Enter minimum price for discount eligibility: ");
-        double minPrice = scanner.nextDouble();
+        double minPrice = readAmount();
 
         System.out.print("Enter discount percentage: ");
-        double discount = scanner.nextDouble();
+        double discount = readAmount();
 
+        long minCents = Money.toCents(minPrice);
         List<Product> eligibleProducts = products.stream()
-                .filter(p -> p.getPrice() >= minPrice)
+                .filter(p -> p.getPriceCents() >= minCents)
                 .collect(Collectors.toList());
 
         if (eligibleProducts.isEmpty()) {
@@ -791,8 +905,7 @@ public class InvenTrackSystem {
         }
 
         for (Product product : eligibleProducts) {
-            double newPrice = product.getPrice() * (1 - discount / 100);
-            product.setPrice(newPrice);
+            product.setPriceCents(Money.applyPercent(product.getPriceCents(), -discount));
         }
 
         UIConstants.printSuccess("Applied " + discount + "% discount to " + eligibleProducts.size() + " products");
@@ -834,60 +947,68 @@ public class InvenTrackSystem {
             return;
         }
 
+        // Every figure below comes from one point-in-time snapshot, so reservations
+        // and alert listeners running meanwhile cannot mix generations
+        InventorySnapshot snapshot = InventorySnapshot.capture(products);
+
         // Basic statistics
-        int totalProducts = products.size();
-        double totalValue = getTotalInventoryValue();
-        int totalQuantity = products.stream().mapToInt(Product::getQuantity).sum();
-        double avgPrice = products.stream().mapToDouble(Product::getPrice).average().orElse(0);
+        int totalProducts = snapshot.size();
+        long totalValue = snapshot.getTotalValueCents();
+        long totalQuantity = snapshot.getTotalUnits();
+        long avgPrice = snapshot.getAveragePriceCents();
 
         System.out.printf("%s📊 GENERAL STATISTICS%s\n", UIConstants.BOLD + UIConstants.CYAN, UIConstants.RESET);
         UIConstants.printSeparator();
         System.out.printf("Total Products: %s%d%s\n", UIConstants.GREEN, totalProducts, UIConstants.RESET);
-        System.out.printf("Total Inventory Value: %s$%.2f%s\n", UIConstants.GREEN, totalValue, UIConstants.RESET);
+        System.out.printf("Total Inventory Value: %s$%s%s\n", UIConstants.GREEN, Money.format(totalValue), UIConstants.RESET);
         System.out.printf("Total Units in Stock: %s%d%s\n", UIConstants.GREEN, totalQuantity, UIConstants.RESET);
-        System.out.printf("Average Price: %s$%.2f%s\n", UIConstants.GREEN, avgPrice, UIConstants.RESET);
+        System.out.printf("Average Price: %s$%s%s\n", UIConstants.GREEN, Money.format(avgPrice), UIConstants.RESET);
 
         // Category statistics
         System.out.printf("\n%s📈 CATEGORY BREAKDOWN%s\n", UIConstants.BOLD + UIConstants.CYAN, UIConstants.RESET);
         UIConstants.printSeparator();
-        for (Map.Entry<String, List<Product>> entry : categoryIndex.entrySet()) {
+        for (Map.Entry<String, List<Product>> entry : snapshot.byCategory().entrySet()) {
             String category = entry.getKey();
             List<Product> categoryProducts = entry.getValue();
-            double categoryValue = categoryProducts.stream().mapToDouble(p -> p.getPrice() * p.getQuantity()).sum();
+            long categoryValue = sumValueCents(categoryProducts);
+            long categoryUnits = 0;
+            for (Product product : categoryProducts) {
+                categoryUnits += product.getQuantity();
+            }
 
-            System.out.printf("%-15s: %s%2d products%s | %sValue: $%.2f%s\n",
+            System.out.printf("%-15s: %s%2d products%s | %s%d units%s | %sValue: $%s%s\n",
                     category,
                     UIConstants.YELLOW, categoryProducts.size(), UIConstants.RESET,
-                    UIConstants.GREEN, categoryValue, UIConstants.RESET);
+                    UIConstants.CYAN, categoryUnits, UIConstants.RESET,
+                    UIConstants.GREEN, Money.format(categoryValue), UIConstants.RESET);
         }
 
         // Stock status statistics
         System.out.printf("\n%s⚠️ STOCK STATUS%s\n", UIConstants.BOLD + UIConstants.CYAN, UIConstants.RESET);
         UIConstants.printSeparator();
 
-        Map<String, Long> stockStats = products.stream()
-                .collect(Collectors.groupingBy(Product::getStockStatus, Collectors.counting()));
-
-        stockStats.forEach((status, count) -> {
-            String color = getStockStatusDisplayColor(status);
+        for (int level = 0; level < Product.STOCK_STATUSES.length; level++) {
+            int count = snapshot.getLevelCount(level);
+            if (count == 0) continue;
+            String status = Product.STOCK_STATUSES[level];
             System.out.printf("%-15s: %s%d products%s\n",
                     status.replace("_", " "),
-                    color, count, UIConstants.RESET);
-        });
+                    getStockStatusDisplayColor(status), count, UIConstants.RESET);
+        }
 
         // Top products
         System.out.printf("\n%s🏆 TOP PRODUCTS%s\n", UIConstants.BOLD + UIConstants.CYAN, UIConstants.RESET);
         UIConstants.printSeparator();
 
         System.out.println(UIConstants.BOLD + "Most Expensive:" + UIConstants.RESET);
-        products.stream()
-                .sorted(Comparator.comparingDouble(Product::getPrice).reversed())
+        snapshot.stream()
+                .sorted(Comparator.comparingLong(Product::getPriceCents).reversed())
                 .limit(3)
-                .forEach(p -> System.out.printf("  %s%s%s - $%.2f\n", UIConstants.GREEN, p.getName(), UIConstants.RESET,
-                        p.getPrice()));
+                .forEach(p -> System.out.printf("  %s%s%s - $%s\n", UIConstants.GREEN, p.getName(), UIConstants.RESET,
+                        Money.format(p.getPriceCents())));
 
         System.out.println(UIConstants.BOLD + "\nHighest Stock:" + UIConstants.RESET);
-        products.stream()
+        snapshot.stream()
                 .sorted(Comparator.comparingInt(Product::getQuantity).reversed())
                 .limit(3)
                 .forEach(p -> System.out.printf("  %s%s%s - %d units\n", UIConstants.CYAN, p.getName(),
@@ -896,6 +1017,276 @@ public class InvenTrackSystem {
         UIConstants.waitForEnter();
     }
 
+    /**
+     * Reports and analytics menu
+     */
+    private static void reportsMenu() {
+        UIConstants.printHeader("REPORTS & ANALYTICS");
+
+        if (products.isEmpty()) {
+            UIConstants.printWarning("No products available for reports!");
+            UIConstants.waitForEnter();
+            return;
+        }
+
+        System.out.println("Reports:");
+        System.out.println("1. Sales Velocity & Reorder Points");
+        System.out.println("2. Stock Alert Inbox (" + alertInbox.size() + ")");
+        System.out.println("3. Warehouse Stock by Location");
+        System.out.println("4. Export Query Results (CSV / JSON Lines)");
+        System.out.println("5. Near-Duplicate Products");
+
+        int choice = getValidChoice(1, 5);
+
+        switch (choice) {
+            case 1 -> showStockVelocity();
+            case 2 -> showStockAlerts();
+            case 3 -> manageLocationStock();
+            case 4 -> exportQueryResults();
+            case 5 -> showDuplicateCandidates();
+        }
+
+        UIConstants.waitForEnter();
+    }
+
+    /**
+     * Show sales velocity, days of cover and reorder points from the stock movement log
+     */
+    private static void showStockVelocity() {
+        System.out.printf("\n%s📉 SALES VELOCITY & REORDER POINTS%s\n", UIConstants.BOLD + UIConstants.CYAN,
+                UIConstants.RESET);
+        System.out.printf("Lead time: %d days | Safety stock: %d days | Velocity window: %s\n",
+                StockMovementLog.LEAD_TIME_DAYS, StockMovementLog.SAFETY_STOCK_DAYS,
+                StockMovementLog.WINDOW_LABELS[StockMovementLog.WINDOW_WEEK]);
+
+        if (StockMovementLog.trackedProducts() == 0) {
+            UIConstants.printInfo("No stock movements recorded yet in this session.");
+            return;
+        }
+
+        UIConstants.printSeparator();
+        System.out.printf("%-8s %-20s %-6s %-8s %-8s %-8s %-10s %-10s %-8s\n",
+                "ID", "NAME", "QTY", "SOLD 24h", "SOLD 7d", "SOLD 30d", "UNITS/DAY", "COVER", "REORDER");
+        UIConstants.printSeparator();
+
+        long now = CoarseClock.millis();
+        int reorderCount = 0;
+        for (Product product : products) {
+            StockMovementLog.Series series = StockMovementLog.get(product.getId());
+            if (series == null) continue;
+
+            double velocity = series.getDailyVelocity(StockMovementLog.WINDOW_WEEK, now);
+            double cover = StockMovementLog.daysOfCover(product.getQuantity(), velocity);
+            int reorderPoint = StockMovementLog.reorderPoint(velocity);
+            boolean needsReorder = velocity > 0 && product.getQuantity() <= reorderPoint;
+            if (needsReorder) reorderCount++;
+
+            String name = product.getName();
+            System.out.printf("%-8d %-20s %-6d %-8d %-8d %-8d %-10.2f %-10s %s%-8d%s\n",
+                    product.getId(),
+                    name.length() > 20 ? name.substring(0, 17) + "..." : name,
+                    product.getQuantity(),
+                    series.getUnitsSold(StockMovementLog.WINDOW_DAY, now),
+                    series.getUnitsSold(StockMovementLog.WINDOW_WEEK, now),
+                    series.getUnitsSold(StockMovementLog.WINDOW_MONTH, now),
+                    velocity,
+                    Double.isInfinite(cover) ? "-" : String.format("%.1f d", cover),
+                    needsReorder ? UIConstants.RED : UIConstants.GREEN, reorderPoint, UIConstants.RESET);
+        }
+        UIConstants.printSeparator();
+
+        if (reorderCount > 0) {
+            UIConstants.printWarning(reorderCount + " product(s) at or below their reorder point!");
+        } else {
+            UIConstants.printSuccess("All tracked products are above their reorder points.");
+        }
+    }
+
+    /**
+     * Show a product's stock per warehouse location and optionally adjust one
+     */
+    private static void manageLocationStock() {
+        System.out.print("Enter Product ID: ");
+        int id = scanner.nextInt();
+
+        Product product = findProductById(id);
+        if (product == null) {
+            UIConstants.printError("Product with ID " + id + " not found!");
+            return;
+        }
+
+        System.out.printf("\n%s🏬 STOCK BY LOCATION - %s%s\n", UIConstants.BOLD + UIConstants.CYAN,
+                product.getName(), UIConstants.RESET);
+        UIConstants.printSeparator();
+        System.out.printf("%-12s %-10s\n", "LOCATION", "ON HAND");
+        for (int locationId : product.getLocationIds()) {
+            System.out.printf("%-12d %-10d\n", locationId, product.getLocationQuantity(locationId));
+        }
+        UIConstants.printSeparator();
+        System.out.printf("Total on hand: %s%d%s | Available: %s%d%s | Reserved: %d\n",
+                UIConstants.GREEN, product.getOnHand(), UIConstants.RESET,
+                UIConstants.GREEN, product.getQuantity(), UIConstants.RESET, product.getReserved());
+
+        System.out.print("\nEnter location ID to update (or -1 to skip): ");
+        int locationId = scanner.nextInt();
+        if (locationId < 0) return;
+
+        System.out.print("Enter quantity at location " + locationId + ": ");
+        int quantity = scanner.nextInt();
+        if (quantity < 0) {
+            UIConstants.printError("Quantity cannot be negative!");
+            return;
+        }
+
+        try {
+            product.setLocationQuantity(locationId, quantity);
+        } catch (IllegalArgumentException e) {
+            UIConstants.printError(e.getMessage());
+            return;
+        }
+        markShardDirty(product);
+        UIConstants.printSuccess("Location " + locationId + " now holds " + quantity + " units (total on hand: "
+                + product.getOnHand() + ")");
+    }
+
+    /**
+     * Stream the results of a query to a CSV or JSON Lines file. The query is
+     * applied lazily while writing, so no result list is built.
+     */
+    private static void exportQueryResults() {
+        System.out.println("\nExport:");
+        System.out.println("1. All Products (current sort order)");
+        System.out.println("2. Name Search");
+        System.out.println("3. Price Range");
+        System.out.println("4. Advanced Search");
+        System.out.println("5. Stock Status");
+        System.out.println("6. Category");
+        System.out.println("7. Low Stock (≤5 items)");
+        System.out.println("8. Out of Stock");
+        System.out.println("9. High Value Items (>$1000)");
+
+        int choice = getValidChoice(1, 9);
+
+        Predicate<Product> query = switch (choice) {
+            case 2 -> readNameQuery();
+            case 3 -> readPriceRangeQuery();
+            case 4 -> readAdvancedQuery();
+            case 5 -> readStockStatusQuery();
+            case 6 -> {
+                String category = readCategoryName();
+                yield p -> p.getCategory().equalsIgnoreCase(category);
+            }
+            case 7 -> LOW_STOCK_QUERY;
+            case 8 -> OUT_OF_STOCK_QUERY;
+            case 9 -> HIGH_VALUE_QUERY;
+            default -> p -> true;
+        };
+
+        System.out.println("\nFormat:");
+        System.out.println("1. CSV");
+        System.out.println("2. JSON Lines");
+        ProductExporter.Format format = getValidChoice(1, 2) == 1
+                ? ProductExporter.Format.CSV
+                : ProductExporter.Format.JSONL;
+
+        scanner.nextLine(); // consume newline
+        String defaultName = "inventrack_export." + format.getExtension();
+        System.out.print("Enter file name (press Enter for " + defaultName + "): ");
+        String fileName = scanner.nextLine().trim();
+        if (fileName.isEmpty()) {
+            fileName = defaultName;
+        }
+
+        try {
+            long start = System.nanoTime();
+            // Export a consistent point-in-time view; reservations and the console can
+            // keep changing the catalog while rows are written
+            Stream<Product> results = InventorySnapshot.capture(products).stream().filter(query);
+            long exported = ProductExporter.export(results, fileName, format);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            UIConstants.printSuccess("Exported " + exported + " product(s) to " + fileName
+                    + " in " + elapsedMillis + " ms");
+        } catch (IOException e) {
+            UIConstants.printError("Export failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * List products in the same category whose names look like duplicates
+     */
+    private static void showDuplicateCandidates() {
+        System.out.printf("Enter minimum name similarity %% (press -1 for %d%%): ",
+                Math.round(DuplicateDetector.DEFAULT_THRESHOLD * 100));
+        int percent = scanner.nextInt();
+        double threshold = percent < 0 ? DuplicateDetector.DEFAULT_THRESHOLD : Math.min(percent, 100) / 100.0;
+
+        InventorySnapshot snapshot = InventorySnapshot.capture(products);
+        long start = System.nanoTime();
+        List<DuplicateDetector.Candidate> candidates = DuplicateDetector.findDuplicates(snapshot.byCategory(), threshold);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("\n%s🔁 NEAR-DUPLICATE PRODUCTS%s\n", UIConstants.BOLD + UIConstants.CYAN, UIConstants.RESET);
+        UIConstants.printSeparator();
+        if (candidates.isEmpty()) {
+            UIConstants.printInfo("No near-duplicate names found (" + snapshot.size() + " products checked in "
+                    + elapsedMillis + " ms).");
+            return;
+        }
+
+        System.out.printf("%-6s %-8s %-24s %-8s %-24s %-15s\n", "SIM", "ID", "NAME", "ID", "NAME", "CATEGORY");
+        UIConstants.printSeparator();
+        for (DuplicateDetector.Candidate candidate : candidates) {
+            Product first = candidate.getFirst();
+            Product second = candidate.getSecond();
+            System.out.printf("%s%-6s%s %-8d %-24s %-8d %-24s %-15s\n",
+                    UIConstants.YELLOW, Math.round(candidate.getSimilarity() * 100) + "%", UIConstants.RESET,
+                    first.getId(), truncate(first.getName(), 24),
+                    second.getId(), truncate(second.getName(), 24),
+                    first.getCategory());
+        }
+        UIConstants.printSeparator();
+        UIConstants.printInfo(candidates.size() + " candidate pair(s) among " + snapshot.size() + " products in "
+                + elapsedMillis + " ms");
+    }
+
+    private static String truncate(String text, int width) {
+        return text.length() > width ? text.substring(0, width - 3) + "..." : text;
+    }
+
+    /**
+     * Show and clear the stock alert inbox
+     */
+    private static void showStockAlerts() {
+        System.out.printf("\n%s🔔 STOCK ALERTS%s\n", UIConstants.BOLD + UIConstants.CYAN, UIConstants.RESET);
+        UIConstants.printSeparator();
+
+        if (alertInbox.isEmpty()) {
+            UIConstants.printInfo("No new stock alerts.");
+            return;
+        }
+
+        StockAlertStream.StockAlert alert;
+        while ((alert = alertInbox.pollFirst()) != null) {
+            String color = alert.isRecovery() ? UIConstants.GREEN : getStockStatusDisplayColor(alert.getNewStatus());
+            System.out.println(color + alert + UIConstants.RESET);
+        }
+        UIConstants.printSeparator();
+        long dropped = StockAlertStream.dropped();
+        if (dropped > 0) {
+            UIConstants.printWarning(dropped + " alert(s) dropped so far because the alert queue was full");
+        }
+    }
+
+    /**
+     * Stock alert listener: keep the most recent alerts for the inbox
+     */
+    private static void receiveAlert(StockAlertStream.StockAlert alert) {
+        alertInbox.addFirst(alert);
+        while (alertInbox.size() > ALERT_INBOX_SIZE) {
+            alertInbox.pollLast();
+        }
+    }
+
     /**
      * Show system information
      */
@@ -906,7 +1297,7 @@ public class InvenTrackSystem {
         System.out.println("Advanced Inventory Management System");
 
         System.out.printf("\n%sSystem Features:%s\n", UIConstants.BOLD, UIConstants.RESET);
-        System.out.println("✅ Collections Framework (ArrayList, HashMap)");
+        System.out.println("✅ Collections Framework (ArrayList, TreeMap)");
         System.out.println("✅ Rich Console UI with Colors");
         System.out.println("✅ Advanced Search & Filtering");
         System.out.println("✅ Bulk Operations");
@@ -915,17 +1306,45 @@ public class InvenTrackSystem {
         System.out.println("✅ Input Validation");
 
         System.out.printf("\n%sFile Information:%s\n", UIConstants.BOLD, UIConstants.RESET);
-        System.out.printf("Data File: %s%s%s\n", UIConstants.CYAN, FILE_NAME, UIConstants.RESET);
-
-        File dataFile = new File(FILE_NAME);
-        if (dataFile.exists()) {
-            System.out.printf("File Size: %s%.2f KB%s\n", UIConstants.GREEN, dataFile.length() / 1024.0,
-                    UIConstants.RESET);
-            System.out.printf("Last Modified: %s%s%s\n", UIConstants.GREEN, new Date(dataFile.lastModified()),
-                    UIConstants.RESET);
+        if (shardStore != null) {
+            long totalBytes = 0;
+            int existing = 0;
+            for (int i = 0; i < shardStore.getShardCount(); i++) {
+                File shardFile = new File(shardStore.shardFileName(i));
+                if (shardFile.exists()) {
+                    totalBytes += shardFile.length();
+                    existing++;
+                }
+            }
+            System.out.printf("Storage Mode: %sSharded (%d shards)%s\n", UIConstants.CYAN,
+                    shardStore.getShardCount(), UIConstants.RESET);
+            System.out.printf("Shard Files: %s%d on disk, %.2f KB total%s\n", UIConstants.GREEN, existing,
+                    totalBytes / 1024.0, UIConstants.RESET);
+        } else if (MAPPED_STORAGE) {
+            File dataFile = new File(DATA_FILE_NAME);
+            System.out.printf("Storage Mode: %sMemory-mapped%s\n", UIConstants.CYAN, UIConstants.RESET);
+            System.out.printf("Data File: %s%s%s\n", UIConstants.CYAN, DATA_FILE_NAME, UIConstants.RESET);
+            if (dataFile.exists()) {
+                System.out.printf("File Size: %s%.2f KB%s\n", UIConstants.GREEN, dataFile.length() / 1024.0,
+                        UIConstants.RESET);
+            }
+            if (mappedProducts != null) {
+                System.out.printf("Records Decoded: %s%d of %d%s\n", UIConstants.GREEN,
+                        mappedProducts.getDecodedCount(), mappedProducts.size(), UIConstants.RESET);
+            }
         } else {
-            System.out
-                    .println(UIConstants.YELLOW + "Data file not found (will be created on save)" + UIConstants.RESET);
+            System.out.printf("Data File: %s%s%s\n", UIConstants.CYAN, FILE_NAME, UIConstants.RESET);
+
+            File dataFile = new File(FILE_NAME);
+            if (dataFile.exists()) {
+                System.out.printf("File Size: %s%.2f KB%s\n", UIConstants.GREEN, dataFile.length() / 1024.0,
+                        UIConstants.RESET);
+                System.out.printf("Last Modified: %s%s%s\n", UIConstants.GREEN, new Date(dataFile.lastModified()),
+                        UIConstants.RESET);
+            } else {
+                System.out.println(
+                        UIConstants.YELLOW + "Data file not found (will be created on save)" + UIConstants.RESET);
+            }
         }
 
         System.out.printf("\n%sRuntime Information:%s\n", UIConstants.BOLD, UIConstants.RESET);
@@ -986,10 +1405,39 @@ public class InvenTrackSystem {
         }
     }
 
+    /**
+     * Read a decimal amount, asking again for NaN or Infinity (Scanner accepts both)
+     */
+    private static double readAmount() {
+        double amount = scanner.nextDouble();
+        while (!Double.isFinite(amount)) {
+            UIConstants.printError("Invalid input! Please enter a finite number.");
+            System.out.print("Enter amount: ");
+            amount = scanner.nextDouble();
+        }
+        return amount;
+    }
+
+    /**
+     * Add, remove or reorder products. Snapshots taken meanwhile retry
+     * instead of reading a half-changed list.
+     */
+    private static void changeCatalog(Runnable change) {
+        InventorySnapshot.beginWrite();
+        try {
+            change.run();
+        } finally {
+            InventorySnapshot.endWrite();
+        }
+    }
+
     /**
      * Find product by ID
      */
     private static Product findProductById(int id) {
+        if (mappedProducts != null) {
+            return mappedProducts.findById(id);
+        }
         return products.stream()
                 .filter(p -> p.getId() == id)
                 .findFirst()
@@ -1000,13 +1448,17 @@ public class InvenTrackSystem {
      * Update category index
      */
     private static void updateCategoryIndex(Product product) {
+        if (categoryIndexPending) return; // picked up when the index is built
         categoryIndex.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+        InventoryTotals.onAdded(product);
     }
 
     /**
      * Remove from category index
      */
     private static void removeCategoryIndex(Product product) {
+        if (categoryIndexPending) return;
+        InventoryTotals.onRemoved(product);
         List<Product> categoryProducts = categoryIndex.get(product.getCategory());
         if (categoryProducts != null) {
             categoryProducts.remove(product);
@@ -1017,12 +1469,33 @@ public class InvenTrackSystem {
     }
 
     /**
-     * Calculate total inventory value
+     * Build the category index if it was deferred at start-up (mapped storage)
      */
-    private static double getTotalInventoryValue() {
-        return products.stream()
-                .mapToDouble(p -> p.getPrice() * p.getQuantity())
-                .sum();
+    private static void ensureCategoryIndex() {
+        if (!categoryIndexPending) return;
+        categoryIndexPending = false;
+        for (Product product : products) {
+            updateCategoryIndex(product);
+        }
+    }
+
+    /**
+     * Number of categories, without building a deferred index
+     */
+    private static int getCategoryCount() {
+        return categoryIndexPending ? mappedProducts.getMappedCategoryCount() : categoryIndex.size();
+    }
+
+    /**
+     * Sum of price x on-hand units in cents. A plain loop over longs: no
+     * boxing and no floating-point rounding; overflow throws instead of wrapping.
+     */
+    private static long sumValueCents(List<Product> list) {
+        long total = 0;
+        for (Product product : list) {
+            total = Math.addExact(total, Money.multiply(product.getPriceCents(), product.getOnHand()));
+        }
+        return total;
     }
 
     /**
@@ -1047,6 +1520,15 @@ public class InvenTrackSystem {
      * Save products to file
      */
     private static void saveToFile() {
+        if (shardStore != null) {
+            saveToShards();
+            return;
+        }
+        if (MAPPED_STORAGE) {
+            saveToMappedFile();
+            return;
+        }
+
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_NAME))) {
             for (Product product : products) {
                 writer.write(product.toFileString());
@@ -1062,6 +1544,15 @@ public class InvenTrackSystem {
      * Load products from file
      */
     private static void loadFromFile() {
+        if (shardStore != null && shardStore.hasData()) {
+            loadFromShards();
+            return;
+        }
+        if (MAPPED_STORAGE && new File(DATA_FILE_NAME).exists()) {
+            loadFromMappedFile();
+            return;
+        }
+
         File file = new File(FILE_NAME);
         if (!file.exists()) {
             UIConstants.printInfo("No existing data file found. Starting with empty inventory.");
@@ -1092,8 +1583,80 @@ public class InvenTrackSystem {
             }
 
             UIConstants.printSuccess("Successfully loaded " + loadedCount + " products from " + FILE_NAME);
+            if (shardStore != null) {
+                // First sharded run: every shard must be written on the next save
+                shardStore.markAllDirty();
+                UIConstants.printInfo("Data will be split into " + shardStore.getShardCount() + " shards on save.");
+            }
+        } catch (IOException e) {
+            UIConstants.printError("Error loading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save dirty shards in parallel
+     */
+    private static void saveToShards() {
+        try {
+            int written = shardStore.save(products);
+            UIConstants.printSuccess("Data saved successfully (" + written + " of " + shardStore.getShardCount()
+                    + " shards rewritten)");
+        } catch (IOException e) {
+            UIConstants.printError("Error saving shards: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load all shards in parallel
+     */
+    private static void loadFromShards() {
+        try {
+            List<Product> loaded = shardStore.load();
+            for (Product product : loaded) {
+                products.add(product);
+                updateCategoryIndex(product);
+            }
+            UIConstants.printSuccess("Successfully loaded " + loaded.size() + " products from "
+                    + shardStore.getShardCount() + " shards");
+        } catch (IOException e) {
+            UIConstants.printError("Error loading shards: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the fixed-width data file
+     */
+    private static void saveToMappedFile() {
+        try {
+            MappedProductFile.write(DATA_FILE_NAME, products);
+            UIConstants.printSuccess("Data saved successfully to " + DATA_FILE_NAME);
+        } catch (IOException e) {
+            UIConstants.printError("Error saving file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Map the fixed-width data file. Only the header is read here; records are
+     * decoded on first access and the category index is built on first use.
+     */
+    private static void loadFromMappedFile() {
+        try {
+            mappedProducts = MappedProductFile.open(DATA_FILE_NAME);
+            products = mappedProducts;
+            categoryIndexPending = true;
+            UIConstants.printSuccess("Mapped " + mappedProducts.size() + " products from " + DATA_FILE_NAME
+                    + " (records load on demand)");
         } catch (IOException e) {
             UIConstants.printError("Error loading file: " + e.getMessage());
         }
     }
+
+    /**
+     * Mark the shard of an added or deleted product for rewriting
+     */
+    private static void markShardDirty(Product product) {
+        if (shardStore != null) {
+            shardStore.markDirty(product.getId());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Point-in-time read view of the catalog for InvenTrack v2.0
+ *
+ * Reports and exports read a snapshot instead of the live product list, so
+ * they see one consistent state and cannot hit a ConcurrentModificationException.
+ * Capturing never blocks writers: the list is copied optimistically under a
+ * sequence counter (odd while the catalog writer is changing the list) and the
+ * copy is retried if the sequence moved. Every product is then copied with
+ * Product.snapshot(), so later updates do not leak into the view.
+ */
+public class InventorySnapshot {
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final long version;
+    private final LocalDateTime takenAt;
+    private final List<Product> products;
+    private final long totalValueCents;
+    private final long totalUnits;
+    private final long priceSumCents;
+    private final int[] levelCounts = new int[Product.STOCK_STATUSES.length];
+
+    private InventorySnapshot(long version, Product[] copies) {
+        this.version = version;
+        this.takenAt = LocalDateTime.now();
+        this.products = Collections.unmodifiableList(Arrays.asList(copies));
+
+        long value = 0;
+        long units = 0;
+        long priceSum = 0;
+        for (Product product : copies) {
+            value = Math.addExact(value, Money.multiply(product.getPriceCents(), product.getOnHand()));
+            units += product.getQuantity();
+            priceSum = Math.addExact(priceSum, product.getPriceCents());
+            levelCounts[product.getStockLevel()]++;
+        }
+        this.totalValueCents = value;
+        this.totalUnits = units;
+        this.priceSumCents = priceSum;
+    }
+
+    /**
+     * Called by the catalog writer before adding, removing or reordering products
+     */
+    public static void beginWrite() {
+        sequence.incrementAndGet();
+    }
+
+    /**
+     * Called by the catalog writer after the change is complete
+     */
+    public static void endWrite() {
+        sequence.incrementAndGet();
+    }
+
+    /**
+     * Take a consistent copy of the live product list
+     */
+    public static InventorySnapshot capture(Collection<Product> live) {
+        while (true) {
+            long before = sequence.get();
+            if ((before & 1) != 0) {
+                Thread.onSpinWait(); // a structural change is in progress
+                continue;
+            }
+
+            Product[] items;
+            try {
+                items = live.toArray(new Product[0]);
+            } catch (ConcurrentModificationException | IndexOutOfBoundsException e) {
+                continue;
+            }
+            if (sequence.get() != before) continue;
+
+            Product[] copies = new Product[items.length];
+            for (int i = 0; i < items.length; i++) {
+                copies[i] = items[i].snapshot();
+            }
+            return new InventorySnapshot(before, copies);
+        }
+    }
+
+    /**
+     * Catalog version the snapshot was taken at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Products in catalog order (read-only copies)
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public Stream<Product> stream() {
+        return products.stream();
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public boolean isEmpty() {
+        return products.isEmpty();
+    }
+
+    /**
+     * Inventory value in cents (price x on-hand units)
+     */
+    public long getTotalValueCents() {
+        return totalValueCents;
+    }
+
+    /**
+     * Available units over all products
+     */
+    public long getTotalUnits() {
+        return totalUnits;
+    }
+
+    /**
+     * Average price in cents (rounded half-even)
+     */
+    public long getAveragePriceCents() {
+        return Money.divide(priceSumCents, products.size());
+    }
+
+    /**
+     * Number of products at a stock level (one of the Product *_STOCK constants)
+     */
+    public int getLevelCount(int level) {
+        return levelCounts[level];
+    }
+
+    /**
+     * Products grouped by category (case-insensitive, sorted by name)
+     */
+    public NavigableMap<String, List<Product>> byCategory() {
+        NavigableMap<String, List<Product>> groups = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Product product : products) {
+            groups.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+        }
+        return groups;
+    }
+}
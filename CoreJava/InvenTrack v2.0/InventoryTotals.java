@@ -0,0 +1,65 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Running inventory totals for InvenTrack v2.0
+ * Global units and the number of products in each stock level are updated
+ * incrementally on every add, remove and quantity change, so the main-menu
+ * status line reads them in O(1) instead of scanning the catalog.
+ */
+public class InventoryTotals {
+    private static final AtomicLong totalUnits = new AtomicLong();
+    private static final AtomicLongArray levelCounts = new AtomicLongArray(Product.STOCK_STATUSES.length);
+
+    /**
+     * Start counting a product that joined the inventory
+     */
+    public static void onAdded(Product product) {
+        if (product.isTracked()) return;
+        product.setTracked(true);
+
+        int quantity = product.getQuantity();
+        totalUnits.addAndGet(quantity);
+        levelCounts.incrementAndGet(Product.stockLevelOf(quantity));
+    }
+
+    /**
+     * Stop counting a product that left the inventory
+     */
+    public static void onRemoved(Product product) {
+        if (!product.isTracked()) return;
+        product.setTracked(false);
+
+        int quantity = product.getQuantity();
+        totalUnits.addAndGet(-quantity);
+        levelCounts.decrementAndGet(Product.stockLevelOf(quantity));
+    }
+
+    /**
+     * Apply an available-quantity change of a tracked product
+     */
+    static void onQuantityChange(Product product, int oldQuantity, int newQuantity) {
+        if (!product.isTracked()) return;
+
+        int delta = newQuantity - oldQuantity;
+        totalUnits.addAndGet(delta);
+
+        int oldLevel = Product.stockLevelOf(oldQuantity);
+        int newLevel = Product.stockLevelOf(newQuantity);
+        if (oldLevel != newLevel) {
+            levelCounts.decrementAndGet(oldLevel);
+            levelCounts.incrementAndGet(newLevel);
+        }
+    }
+
+    public static long getTotalUnits() {
+        return totalUnits.get();
+    }
+
+    /**
+     * Number of products at a stock level (one of the Product *_STOCK constants)
+     */
+    public static long getLevelCount(int level) {
+        return levelCounts.get(level);
+    }
+}
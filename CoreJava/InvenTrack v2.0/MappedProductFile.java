@@ -0,0 +1,250 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Fixed-width binary data file for InvenTrack v2.0
+ *
+ * Layout (big-endian):
+ *   header  (32 bytes)  magic, version, record count, flags, category count
+ *   records (56 bytes each, sorted by product ID)
+ *     id, quantity, price (cents), createdAt, updatedAt (epoch millis),
+ *     name offset/length, category offset/length,
+ *     location offset/count (into the heap)
+ *   heap (UTF-8 strings, distinct categories stored once, and
+ *     (location ID, quantity) int pairs)
+ *
+ * Because every record has the same width, record i can be read straight from
+ * a memory mapping without parsing anything before it.
+ */
+public class MappedProductFile {
+    public static final int MAGIC = 0x494E5654; // "INVT"
+    public static final int FORMAT_VERSION = 3;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 56;
+
+    public static final int FLAG_SORTED_BY_ID = 1;
+
+    // Header field offsets
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_COUNT = 8;
+    static final int H_FLAGS = 12;
+    static final int H_CATEGORIES = 16;
+
+    // Record field offsets
+    static final int R_ID = 0;
+    static final int R_QUANTITY = 4;
+    static final int R_PRICE = 8;
+    static final int R_CREATED = 16;
+    static final int R_UPDATED = 24;
+    static final int R_NAME_OFFSET = 32;
+    static final int R_NAME_LENGTH = 36;
+    static final int R_CATEGORY_OFFSET = 40;
+    static final int R_CATEGORY_LENGTH = 44;
+    static final int R_LOCATION_OFFSET = 48;
+    static final int R_LOCATION_COUNT = 52;
+
+    /**
+     * Map a data file read-only. Only the header is read, so this is O(1)
+     * regardless of the number of records.
+     */
+    public static MappedProductList open(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File too small for an InvenTrack data file: " + fileName);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Data file exceeds 2 GB mapping limit: " + fileName);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(H_MAGIC) != MAGIC) {
+                throw new IOException("Not an InvenTrack data file: " + fileName);
+            }
+            int version = buffer.getInt(H_VERSION);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported data file version " + version);
+            }
+
+            int count = buffer.getInt(H_COUNT);
+            if (HEADER_SIZE + (long) count * RECORD_SIZE > size) {
+                throw new IOException("Data file is truncated: " + fileName);
+            }
+            return new MappedProductList(buffer, count,
+                    (buffer.getInt(H_FLAGS) & FLAG_SORTED_BY_ID) != 0,
+                    buffer.getInt(H_CATEGORIES));
+        }
+    }
+
+    /**
+     * Write all products to a data file (records sorted by ID). The file is
+     * written to a temporary name first and then moved over the old one.
+     */
+    public static void write(String fileName, Collection<Product> products) throws IOException {
+        Product[] sorted = products.toArray(new Product[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(Product::getId));
+
+        try (StreamWriter writer = new StreamWriter(fileName)) {
+            for (Product product : sorted) {
+                writer.append(product);
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * Writes a data file one product at a time with bounded memory: records and
+     * the string heap are spooled to two temporary files and joined behind the
+     * header by finish(). The sorted-by-ID flag is set only if the products
+     * were appended in ascending ID order. Closing without finish() discards
+     * the output.
+     */
+    public static class StreamWriter implements Closeable {
+        private final Path target;
+        private final Path recordsFile;
+        private final Path heapFile;
+        private final DataOutputStream records;
+        private final DataOutputStream heap;
+        private final Map<String, int[]> categories = new HashMap<>();
+        private int count;
+        private int lastId = Integer.MIN_VALUE;
+        private boolean sortedById = true;
+        private boolean closed;
+
+        public StreamWriter(String fileName) throws IOException {
+            this.target = Paths.get(fileName);
+            this.recordsFile = Paths.get(fileName + ".records.tmp");
+            this.heapFile = Paths.get(fileName + ".heap.tmp");
+            this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+            this.heap = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(heapFile), 1 << 16));
+        }
+
+        /**
+         * Append one product record
+         */
+        public void append(Product product) throws IOException {
+            if (count == Integer.MAX_VALUE) {
+                throw new IOException("Too many records for one data file");
+            }
+            if (product.getId() < lastId) {
+                sortedById = false;
+            }
+            lastId = product.getId();
+
+            byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+            int nameOffset = heapOffset();
+            heap.write(name);
+
+            int[] category = categories.get(product.getCategory());
+            if (category == null) {
+                byte[] bytes = product.getCategory().getBytes(StandardCharsets.UTF_8);
+                category = new int[] { heapOffset(), bytes.length };
+                heap.write(bytes);
+                categories.put(product.getCategory(), category);
+            }
+
+            int[][] locations = product.getLocationArrays();
+            int locationOffset = heapOffset();
+            for (int j = 0; j < locations[0].length; j++) {
+                heap.writeInt(locations[0][j]);
+                heap.writeInt(locations[1][j]);
+            }
+
+            records.writeInt(product.getId());                      // R_ID
+            records.writeInt(product.getOnHand());                  // R_QUANTITY
+            records.writeLong(product.getPriceCents());             // R_PRICE
+            records.writeLong(product.getCreatedAtMillis());        // R_CREATED
+            records.writeLong(product.getUpdatedAtMillis());        // R_UPDATED
+            records.writeInt(nameOffset);                           // R_NAME_OFFSET
+            records.writeInt(name.length);                          // R_NAME_LENGTH
+            records.writeInt(category[0]);                          // R_CATEGORY_OFFSET
+            records.writeInt(category[1]);                          // R_CATEGORY_LENGTH
+            records.writeInt(locationOffset);                       // R_LOCATION_OFFSET
+            records.writeInt(locations[0].length);                  // R_LOCATION_COUNT
+            count++;
+        }
+
+        /**
+         * Number of records appended so far
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Write header, records and heap to the target file and replace it
+         */
+        public void finish() throws IOException {
+            records.close();
+            heap.close();
+            if ((long) HEADER_SIZE + Files.size(recordsFile) + Files.size(heapFile) > Integer.MAX_VALUE) {
+                throw new IOException("Data file would exceed 2 GB mapping limit: " + target);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSION, FORMAT_VERSION);
+            header.putInt(H_COUNT, count);
+            header.putInt(H_FLAGS, sortedById ? FLAG_SORTED_BY_ID : 0);
+            header.putInt(H_CATEGORIES, countDistinctIgnoreCase(categories.keySet()));
+
+            Path temp = Paths.get(target + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                transfer(recordsFile, out);
+                transfer(heapFile, out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            close();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                records.close();
+                heap.close();
+            } finally {
+                Files.deleteIfExists(recordsFile);
+                Files.deleteIfExists(heapFile);
+            }
+        }
+
+        private int heapOffset() throws IOException {
+            int size = heap.size();
+            if (size < 0 || size == Integer.MAX_VALUE) {
+                throw new IOException("String heap exceeds 2 GB");
+            }
+            return size;
+        }
+
+        private static void transfer(Path source, FileChannel out) throws IOException {
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+                long position = 0;
+                long size = in.size();
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+        }
+    }
+
+    private static int countDistinctIgnoreCase(Set<String> categories) {
+        Set<String> distinct = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        distinct.addAll(categories);
+        return distinct.size();
+    }
+}
@@ -0,0 +1,166 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Product list backed by a memory-mapped data file (see MappedProductFile)
+ *
+ * Records are decoded only when first accessed and then cached, so opening the
+ * list is O(1) and the OS pages in just the parts of the file a query touches.
+ * The cache is published with compare-and-set, so threads reading the same
+ * record concurrently always get the same Product (and share its stock).
+ * The first structural change (add, remove, set, sort) copies the list into an
+ * ArrayList, after which it behaves like a normal in-memory list.
+ */
+public class MappedProductList extends AbstractList<Product> implements RandomAccess {
+    private final ByteBuffer buffer;
+    private final int mappedCount;
+    private final boolean sortedById;
+    private final int categoryCount;
+    private final int heapStart;
+    private final AtomicReferenceArray<Product> decoded;
+    private volatile ArrayList<Product> materialized;
+
+    MappedProductList(ByteBuffer buffer, int count, boolean sortedById, int categoryCount) {
+        this.buffer = buffer;
+        this.mappedCount = count;
+        this.sortedById = sortedById;
+        this.categoryCount = categoryCount;
+        this.heapStart = MappedProductFile.HEADER_SIZE + count * MappedProductFile.RECORD_SIZE;
+        this.decoded = new AtomicReferenceArray<>(count);
+    }
+
+    @Override
+    public Product get(int index) {
+        ArrayList<Product> list = materialized;
+        if (list != null) return list.get(index);
+        Objects.checkIndex(index, mappedCount);
+
+        Product product = decoded.get(index);
+        if (product == null) {
+            Product fresh = decode(index);
+            // Another thread may have decoded the record meanwhile: keep its copy
+            product = decoded.compareAndSet(index, null, fresh) ? fresh : decoded.get(index);
+        }
+        return product;
+    }
+
+    @Override
+    public int size() {
+        return materialized != null ? materialized.size() : mappedCount;
+    }
+
+    @Override
+    public Product set(int index, Product product) {
+        return materialize().set(index, product);
+    }
+
+    @Override
+    public void add(int index, Product product) {
+        materialize().add(index, product);
+        modCount++;
+    }
+
+    @Override
+    public Product remove(int index) {
+        Product removed = materialize().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Find a product by ID. While the list still mirrors the file this is a
+     * binary search over the mapped ID column; afterwards a linear scan.
+     */
+    public Product findById(int id) {
+        if (materialized == null && sortedById) {
+            int low = 0;
+            int high = mappedCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = buffer.getInt(recordBase(mid) + MappedProductFile.R_ID);
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return get(mid);
+                }
+            }
+            return null;
+        }
+
+        for (Product product : this) {
+            if (product.getId() == id) return product;
+        }
+        return null;
+    }
+
+    /**
+     * Number of distinct categories as recorded in the file header
+     */
+    public int getMappedCategoryCount() {
+        return categoryCount;
+    }
+
+    /**
+     * Number of records decoded so far
+     */
+    public int getDecodedCount() {
+        if (materialized != null) return materialized.size();
+        int decodedCount = 0;
+        for (int i = 0; i < mappedCount; i++) {
+            if (decoded.get(i) != null) decodedCount++;
+        }
+        return decodedCount;
+    }
+
+    private ArrayList<Product> materialize() {
+        if (materialized == null) {
+            ArrayList<Product> copy = new ArrayList<>(mappedCount + 16);
+            for (int i = 0; i < mappedCount; i++) {
+                copy.add(get(i));
+            }
+            materialized = copy;
+        }
+        return materialized;
+    }
+
+    private int recordBase(int index) {
+        return MappedProductFile.HEADER_SIZE + index * MappedProductFile.RECORD_SIZE;
+    }
+
+    private Product decode(int index) {
+        int base = recordBase(index);
+        Product product = new Product(
+                buffer.getInt(base + MappedProductFile.R_ID),
+                readString(buffer.getInt(base + MappedProductFile.R_NAME_OFFSET),
+                        buffer.getInt(base + MappedProductFile.R_NAME_LENGTH)),
+                buffer.getLong(base + MappedProductFile.R_PRICE),
+                buffer.getInt(base + MappedProductFile.R_QUANTITY),
+                readString(buffer.getInt(base + MappedProductFile.R_CATEGORY_OFFSET),
+                        buffer.getInt(base + MappedProductFile.R_CATEGORY_LENGTH)),
+                buffer.getLong(base + MappedProductFile.R_CREATED),
+                buffer.getLong(base + MappedProductFile.R_UPDATED));
+
+        int locationCount = buffer.getInt(base + MappedProductFile.R_LOCATION_COUNT);
+        if (locationCount > 0) {
+            int offset = heapStart + buffer.getInt(base + MappedProductFile.R_LOCATION_OFFSET);
+            int[] ids = new int[locationCount];
+            int[] quantities = new int[locationCount];
+            for (int i = 0; i < locationCount; i++) {
+                ids[i] = buffer.getInt(offset + i * 8);
+                quantities[i] = buffer.getInt(offset + i * 8 + 4);
+            }
+            product.restoreLocations(ids, quantities);
+        }
+        return product;
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(heapStart + offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers for InvenTrack v2.0
+ *
+ * Prices are stored as a long number of cents so sums and valuations are
+ * exact. Conversions from decimal input and percentage changes round to the
+ * nearest cent using banker's rounding (HALF_EVEN), so repeated bulk updates
+ * do not drift in one direction.
+ */
+public class Money {
+    public static final int SCALE = 2;
+    public static final long CENTS_PER_UNIT = 100;
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    /**
+     * Convert a decimal amount (e.g. user input) to cents
+     *
+     * @throws IllegalArgumentException if the amount is NaN or infinite
+     */
+    public static long toCents(double amount) {
+        requireFinite(amount);
+        return toCents(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * Convert a decimal amount to cents
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Parse a decimal string such as "149.99" into cents
+     */
+    public static long parse(String amount) {
+        return toCents(new BigDecimal(amount.trim()));
+    }
+
+    /**
+     * Cents as a decimal amount (for display and floating-point math only)
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Format cents as "1234.56" (no currency symbol, "-" for negatives)
+     */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        long fraction = Math.abs(cents % CENTS_PER_UNIT);
+        sb.append(units).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    /**
+     * Change an amount by a percentage (positive = increase, negative =
+     * decrease), rounding half-even to the nearest cent
+     */
+    public static long applyPercent(long cents, double percent) {
+        requireFinite(percent);
+        BigDecimal factor = HUNDRED.add(BigDecimal.valueOf(percent));
+        return BigDecimal.valueOf(cents).multiply(factor)
+                .divide(HUNDRED, 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    /**
+     * Divide an amount, e.g. for an average, rounding half-even (0 if count is 0)
+     */
+    public static long divide(long cents, long count) {
+        if (count == 0) return 0;
+        return BigDecimal.valueOf(cents)
+                .divide(BigDecimal.valueOf(count), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    /**
+     * Value of a stock position in cents (price x units)
+     */
+    public static long multiply(long cents, int units) {
+        return Math.multiplyExact(cents, (long) units);
+    }
+
+    /**
+     * Reject NaN and infinities, which BigDecimal cannot represent
+     */
+    private static void requireFinite(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Not a finite amount: " + value);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Hash-partitioned storage for InvenTrack v2.0
+ * Spreads products over N shard files by product ID so that every shard is
+ * loaded and saved by its own worker, and only dirty shards are rewritten.
+ */
+public class PartitionedStore {
+    private final String baseName;
+    private final int shardCount;
+    private final boolean[] dirty;
+    private long lastSavedAt = Long.MIN_VALUE;
+
+    /**
+     * Create a store for the given data file name (e.g. "inventrackv2_products.txt")
+     */
+    public PartitionedStore(String fileName, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        int dot = fileName.lastIndexOf('.');
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.shardCount = shardCount;
+        this.dirty = new boolean[shardCount];
+    }
+
+    public int getShardCount() { return shardCount; }
+
+    /**
+     * Shard number for a product ID (ID bits are mixed so sequential IDs spread evenly)
+     */
+    public int shardOf(int productId) {
+        int h = productId * 0x9E3779B9;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shardCount);
+    }
+
+    /**
+     * File name of a shard
+     */
+    public String shardFileName(int shard) {
+        return String.format("%s.shard-%02d.txt", baseName, shard);
+    }
+
+    /**
+     * Check whether any shard file exists on disk
+     */
+    public boolean hasData() {
+        for (int i = 0; i < shardCount; i++) {
+            if (new File(shardFileName(i)).exists()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Mark the shard holding a product as dirty (used for adds and deletes)
+     */
+    public synchronized void markDirty(int productId) {
+        dirty[shardOf(productId)] = true;
+    }
+
+    /**
+     * Mark every shard as dirty (e.g. after importing the single-file format)
+     */
+    public synchronized void markAllDirty() {
+        Arrays.fill(dirty, true);
+    }
+
+    /**
+     * Load all shards in parallel, one worker per shard
+     */
+    public List<Product> load() throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(shardCount);
+        try {
+            List<Future<ShardResult>> futures = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                final int shard = i;
+                futures.add(workers.submit(() -> readShard(shard)));
+            }
+
+            List<Product> loaded = new ArrayList<>();
+            for (Future<ShardResult> future : futures) {
+                ShardResult result = await(future);
+                loaded.addAll(result.products);
+                result.errors.forEach(System.err::println);
+            }
+            lastSavedAt = CoarseClock.millis();
+            return loaded;
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Save dirty shards in parallel. A shard is dirty if a product was added to or
+     * removed from it, or if any of its products was modified since the last save.
+     *
+     * @return number of shard files rewritten
+     */
+    public int save(Collection<Product> products) throws IOException {
+        // Same clock as Product timestamps, so ">=" catches updates in the same tick
+        long saveStartedAt = CoarseClock.millis();
+        boolean[] toWrite;
+        synchronized (this) {
+            toWrite = dirty.clone();
+        }
+        for (Product product : products) {
+            if (product.getUpdatedAtMillis() >= lastSavedAt) {
+                toWrite[shardOf(product.getId())] = true;
+            }
+        }
+
+        List<List<Product>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(toWrite[i] ? new ArrayList<>() : null);
+        }
+        for (Product product : products) {
+            List<Product> shard = shards.get(shardOf(product.getId()));
+            if (shard != null) shard.add(product);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(shardCount);
+        int written = 0;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                if (!toWrite[i]) continue;
+                final int shard = i;
+                futures.add(workers.submit(() -> {
+                    writeShard(shard, shards.get(shard));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+                written++;
+            }
+        } finally {
+            workers.shutdown();
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < shardCount; i++) {
+                if (toWrite[i]) dirty[i] = false;
+            }
+        }
+        lastSavedAt = saveStartedAt;
+        return written;
+    }
+
+    private ShardResult readShard(int shard) throws IOException {
+        ShardResult result = new ShardResult();
+        File file = new File(shardFileName(shard));
+        if (!file.exists()) return result;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                try {
+                    result.products.add(Product.fromFileString(line));
+                } catch (Exception e) {
+                    result.errors.add("Error parsing " + file.getName() + " line " + lineNumber + ": " + line
+                            + "\nReason: " + e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+
+    private void writeShard(int shard, List<Product> shardProducts) throws IOException {
+        Path target = Paths.get(shardFileName(shard));
+        Path temp = Paths.get(shardFileName(shard) + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+            for (Product product : shardProducts) {
+                writer.write(product.toFileString());
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shard worker", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Shard worker failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Products and parse errors collected by one shard worker
+     */
+    private static class ShardResult {
+        final List<Product> products = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+    }
+}
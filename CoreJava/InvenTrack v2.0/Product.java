@@ -1,5 +1,7 @@
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Enhanced Product class for InvenTrack v2.0
@@ -9,11 +11,37 @@ import java.time.format.DateTimeFormatter;
 public class Product implements Comparable<Product> {
     private int id;
     private String name;
-    private double price;
-    private int quantity;
+    private long priceCents;
+    private volatile int quantity; // available units (excludes reserved units)
+    private volatile int reserved; // units held by open reservations
     private String category;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
+    private long createdAtMillis; // epoch millis, see CoarseClock
+    private volatile long updatedAtMillis;
+
+    // Per-location on-hand stock, parallel arrays sorted by location ID.
+    // Empty means all stock sits at DEFAULT_LOCATION.
+    private volatile int[] locationIds = NO_LOCATIONS;
+    private volatile int[] locationQuantities = NO_LOCATIONS;
+    private volatile boolean tracked; // counted in InventoryTotals
+
+    // Bumped after every change; cached renderings are tagged with it
+    private volatile int version;
+    private volatile Rendered rowCache;
+    private volatile Rendered detailCache;
+    private final Product origin; // live product a snapshot was copied from, null otherwise
+
+    private static final AtomicIntegerFieldUpdater<Product> QUANTITY =
+        AtomicIntegerFieldUpdater.newUpdater(Product.class, "quantity");
+    private static final AtomicIntegerFieldUpdater<Product> RESERVED =
+        AtomicIntegerFieldUpdater.newUpdater(Product.class, "reserved");
+    private static final AtomicIntegerFieldUpdater<Product> VERSION =
+        AtomicIntegerFieldUpdater.newUpdater(Product.class, "version");
+
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+    private static final DateTimeFormatter FILE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int[] NO_LOCATIONS = new int[0];
+    public static final int DEFAULT_LOCATION = 0;
 
     // Category constants for validation
     public static final String[] VALID_CATEGORIES = {
@@ -21,61 +49,380 @@ public class Product implements Comparable<Product> {
         "Home & Garden", "Beauty", "Automotive", "Others"
     };
 
+    // Stock levels, ordered from most to least critical
+    public static final int OUT_OF_STOCK = 0;
+    public static final int LOW_STOCK = 1;
+    public static final int MEDIUM_STOCK = 2;
+    public static final int HIGH_STOCK = 3;
+    public static final String[] STOCK_STATUSES = {
+        "OUT_OF_STOCK", "LOW_STOCK", "MEDIUM_STOCK", "HIGH_STOCK"
+    };
+
     /**
      * Constructor to create a new Product
      */
     public Product(int id, String name, double price, int quantity, String category) {
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.priceCents = Math.max(0, Money.toCents(price));
         this.quantity = quantity;
         this.category = category;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAtMillis = CoarseClock.millis();
+        this.updatedAtMillis = createdAtMillis;
+        this.origin = null;
     }
 
     /**
-     * Constructor for loading from file with timestamps
+     * Constructor for loading from file with timestamps (price in cents)
      */
-    public Product(int id, String name, double price, int quantity, String category, 
+    public Product(int id, String name, long priceCents, int quantity, String category,
                    LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, priceCents, quantity, category,
+                createdAt != null ? CoarseClock.toMillis(createdAt) : CoarseClock.millis(),
+                updatedAt != null ? CoarseClock.toMillis(updatedAt) : CoarseClock.millis());
+    }
+
+    /**
+     * Constructor for loading with epoch-millis timestamps (price in cents)
+     */
+    public Product(int id, String name, long priceCents, int quantity, String category,
+                   long createdAtMillis, long updatedAtMillis) {
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.priceCents = Math.max(0, priceCents);
         this.quantity = quantity;
         this.category = category;
-        this.createdAt = createdAt != null ? createdAt : LocalDateTime.now();
-        this.updatedAt = updatedAt != null ? updatedAt : LocalDateTime.now();
+        this.createdAtMillis = createdAtMillis;
+        this.updatedAtMillis = updatedAtMillis;
+        this.origin = null;
+    }
+
+    /**
+     * Copy constructor for snapshots (see snapshot())
+     */
+    private Product(Product source) {
+        this.id = source.id;
+        this.origin = source;
+        this.createdAtMillis = source.createdAtMillis;
+
+        // Re-read if the source changed while being copied
+        int sourceVersion;
+        do {
+            sourceVersion = source.version;
+            this.name = source.name;
+            this.priceCents = source.priceCents;
+            this.category = source.category;
+            this.updatedAtMillis = source.updatedAtMillis;
+            this.reserved = source.reserved;
+            this.quantity = source.quantity;
+            synchronized (source) {
+                if (source.hasLocations()) {
+                    this.locationIds = source.locationIds.clone();
+                    this.locationQuantities = source.locationQuantities.clone();
+                }
+            }
+        } while (source.version != sourceVersion);
+        this.version = sourceVersion;
     }
 
     // Getters
     public int getId() { return id; }
     public String getName() { return name; }
-    public double getPrice() { return price; }
+    public double getPrice() { return Money.toDouble(priceCents); }
+    public long getPriceCents() { return priceCents; }
     public int getQuantity() { return quantity; }
+    public int getReserved() { return reserved; }
+    public int getOnHand() { return quantity + reserved; }
     public String getCategory() { return category; }
-    public LocalDateTime getCreatedAt() { return createdAt; }
-    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public long getUpdatedAtMillis() { return updatedAtMillis; }
+
+    /**
+     * Creation time as LocalDateTime (allocated on each call, for display/export)
+     */
+    public LocalDateTime getCreatedAt() { return CoarseClock.toLocalDateTime(createdAtMillis); }
+
+    /**
+     * Last update time as LocalDateTime (allocated on each call, for display/export)
+     */
+    public LocalDateTime getUpdatedAt() { return CoarseClock.toLocalDateTime(updatedAtMillis); }
 
     // Setters with validation
     public void setName(String name) {
         this.name = name != null ? name.trim() : "Unknown";
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
     public void setPrice(double price) {
-        this.price = Math.max(0, price);
-        this.updatedAt = LocalDateTime.now();
+        setPriceCents(Money.toCents(price));
+    }
+
+    public void setPriceCents(long priceCents) {
+        this.priceCents = Math.max(0, priceCents);
+        touch();
+    }
+
+    /**
+     * Change counter: increases whenever any field of the product changes
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Record a modification at the (coarse) current time
+     */
+    private void touch() {
+        this.updatedAtMillis = CoarseClock.millis();
+        VERSION.incrementAndGet(this);
+    }
+
+    /**
+     * Value of the on-hand stock in cents (exact)
+     */
+    public long getValueCents() {
+        return Money.multiply(priceCents, getOnHand());
     }
 
     public void setQuantity(int quantity) {
-        this.quantity = Math.max(0, quantity);
-        this.updatedAt = LocalDateTime.now();
+        int newQuantity = Math.max(0, quantity);
+        int oldQuantity = QUANTITY.getAndSet(this, newQuantity);
+        if (hasLocations()) {
+            adjustLocations(newQuantity - oldQuantity);
+        }
+        StockMovementLog.record(id, newQuantity - oldQuantity);
+        availableChanged(oldQuantity, newQuantity);
+        touch();
+    }
+
+    /**
+     * Check whether stock is broken down by location
+     */
+    public boolean hasLocations() {
+        return locationIds.length > 0;
+    }
+
+    /**
+     * Location IDs holding stock records, in ascending order
+     */
+    public synchronized int[] getLocationIds() {
+        return hasLocations() ? locationIds.clone() : new int[] { DEFAULT_LOCATION };
+    }
+
+    /**
+     * On-hand units at a location
+     */
+    public synchronized int getLocationQuantity(int locationId) {
+        if (!hasLocations()) {
+            return locationId == DEFAULT_LOCATION ? getOnHand() : 0;
+        }
+        int index = Arrays.binarySearch(locationIds, locationId);
+        return index >= 0 ? locationQuantities[index] : 0;
+    }
+
+    /**
+     * Set on-hand units at a location; the product total changes by the difference.
+     * Reserved units cannot be removed, so the location sum always equals getOnHand().
+     *
+     * @throws IllegalArgumentException if the change would take away reserved units
+     */
+    public void setLocationQuantity(int locationId, int quantity) {
+        if (locationId < 0) {
+            throw new IllegalArgumentException("Location ID cannot be negative");
+        }
+        int newQuantity = Math.max(0, quantity);
+        int delta;
+        int oldQuantity;
+        synchronized (this) {
+            if (!hasLocations()) {
+                locationIds = new int[] { DEFAULT_LOCATION };
+                locationQuantities = new int[] { getOnHand() };
+            }
+            int index = slotFor(locationId);
+            delta = newQuantity - locationQuantities[index];
+            if (delta == 0) return;
+
+            // Reservations take available units without this monitor, so claim the
+            // change with compare-and-set before touching the location
+            do {
+                oldQuantity = this.quantity;
+                if (oldQuantity + delta < 0) {
+                    throw new IllegalArgumentException("Cannot remove " + -delta + " units: only "
+                            + oldQuantity + " are available (" + reserved + " reserved)");
+                }
+            } while (!QUANTITY.compareAndSet(this, oldQuantity, oldQuantity + delta));
+            locationQuantities[index] = newQuantity;
+        }
+
+        StockMovementLog.record(id, delta);
+        availableChanged(oldQuantity, oldQuantity + delta);
+        touch();
+    }
+
+    /**
+     * Restore a location breakdown loaded from storage (no events are raised).
+     * The product total becomes the sum of the location quantities.
+     */
+    void restoreLocations(int[] ids, int[] quantities) {
+        if (ids.length != quantities.length) {
+            throw new IllegalArgumentException("Location arrays differ in length");
+        }
+        int[] sortedIds = ids.clone();
+        int[] sortedQuantities = new int[ids.length];
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(ids[a], ids[b]));
+        int total = 0;
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedQuantities[i] = Math.max(0, quantities[order[i]]);
+            total += sortedQuantities[i];
+        }
+        synchronized (this) {
+            this.locationIds = sortedIds;
+            this.locationQuantities = sortedQuantities;
+        }
+        this.quantity = total;
+        this.reserved = 0;
+        VERSION.incrementAndGet(this);
+    }
+
+    /**
+     * Apply a change of on-hand stock to the locations: additions go to the
+     * default location, removals drain the default location first and then the
+     * others in ID order.
+     */
+    private synchronized void adjustLocations(int delta) {
+        if (delta > 0) {
+            locationQuantities[slotFor(DEFAULT_LOCATION)] += delta;
+            return;
+        }
+        int remaining = -delta;
+        int defaultIndex = Arrays.binarySearch(locationIds, DEFAULT_LOCATION);
+        if (defaultIndex >= 0) {
+            int taken = Math.min(remaining, locationQuantities[defaultIndex]);
+            locationQuantities[defaultIndex] -= taken;
+            remaining -= taken;
+        }
+        for (int i = 0; i < locationQuantities.length && remaining > 0; i++) {
+            int taken = Math.min(remaining, locationQuantities[i]);
+            locationQuantities[i] -= taken;
+            remaining -= taken;
+        }
+    }
+
+    /**
+     * Index of a location, inserting it (with zero units) if missing
+     */
+    private int slotFor(int locationId) {
+        int index = Arrays.binarySearch(locationIds, locationId);
+        if (index >= 0) return index;
+
+        int insertAt = -index - 1;
+        int[] ids = new int[locationIds.length + 1];
+        int[] quantities = new int[locationQuantities.length + 1];
+        System.arraycopy(locationIds, 0, ids, 0, insertAt);
+        System.arraycopy(locationQuantities, 0, quantities, 0, insertAt);
+        System.arraycopy(locationIds, insertAt, ids, insertAt + 1, locationIds.length - insertAt);
+        System.arraycopy(locationQuantities, insertAt, quantities, insertAt + 1, locationQuantities.length - insertAt);
+        ids[insertAt] = locationId;
+        locationIds = ids;
+        locationQuantities = quantities;
+        return insertAt;
+    }
+
+    /**
+     * Notify listeners and totals that the available quantity changed
+     */
+    private void availableChanged(int oldQuantity, int newQuantity) {
+        if (oldQuantity == newQuantity) return;
+        VERSION.incrementAndGet(this);
+        StockAlertStream.onQuantityChange(this, oldQuantity, newQuantity);
+        InventoryTotals.onQuantityChange(this, oldQuantity, newQuantity);
+    }
+
+    /**
+     * Location IDs and quantities as stored (empty arrays if no breakdown)
+     */
+    synchronized int[][] getLocationArrays() {
+        return new int[][] { locationIds.clone(), locationQuantities.clone() };
+    }
+
+    /**
+     * Point-in-time copy of this product for read-only views (reports, exports).
+     * The copy is not counted in the running totals and must not be modified.
+     */
+    public Product snapshot() {
+        return new Product(this);
+    }
+
+    boolean isTracked() { return tracked; }
+    void setTracked(boolean tracked) { this.tracked = tracked; }
+
+    /**
+     * Reserve units for checkout. Lock-free: the available quantity is taken with
+     * compare-and-set and never drops below zero, so stock cannot be oversold.
+     *
+     * @return true if the units were reserved, false if not enough stock is available
+     */
+    public boolean tryReserve(int units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units to reserve must be positive");
+        }
+        while (true) {
+            int available = quantity;
+            if (available < units) {
+                return false;
+            }
+            if (QUANTITY.compareAndSet(this, available, available - units)) {
+                RESERVED.getAndAdd(this, units);
+                availableChanged(available, available - units);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Commit reserved units as sold. Lock-free: the sale goes to the movement log
+     * through striped counters, and only a product with a location breakdown takes
+     * its monitor to drain the locations.
+     */
+    public void commitReservation(int units) {
+        takeReserved(units);
+        if (hasLocations()) {
+            adjustLocations(-units);
+        }
+        StockMovementLog.record(id, -units);
+        touch();
+    }
+
+    /**
+     * Release reserved units back to available stock
+     */
+    public void releaseReservation(int units) {
+        takeReserved(units);
+        int oldQuantity = QUANTITY.getAndAdd(this, units);
+        availableChanged(oldQuantity, oldQuantity + units);
+    }
+
+    private void takeReserved(int units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+        while (true) {
+            int current = reserved;
+            if (current < units) {
+                throw new IllegalStateException("Only " + current + " units reserved for product " + id);
+            }
+            if (RESERVED.compareAndSet(this, current, current - units)) {
+                return;
+            }
+        }
     }
 
     public void setCategory(String category) {
         this.category = isValidCategory(category) ? category : "Others";
-        this.updatedAt = LocalDateTime.now();
+        touch();
     }
 
     /**
@@ -91,14 +438,28 @@ public class Product implements Comparable<Product> {
         return false;
     }
 
+    /**
+     * Get stock level for a quantity (one of the *_STOCK constants)
+     */
+    public static int stockLevelOf(int quantity) {
+        if (quantity == 0) return OUT_OF_STOCK;
+        if (quantity <= 5) return LOW_STOCK;
+        if (quantity <= 20) return MEDIUM_STOCK;
+        return HIGH_STOCK;
+    }
+
+    /**
+     * Get stock level based on quantity
+     */
+    public int getStockLevel() {
+        return stockLevelOf(quantity);
+    }
+
     /**
      * Get stock status based on quantity
      */
     public String getStockStatus() {
-        if (quantity == 0) return "OUT_OF_STOCK";
-        if (quantity <= 5) return "LOW_STOCK";
-        if (quantity <= 20) return "MEDIUM_STOCK";
-        return "HIGH_STOCK";
+        return STOCK_STATUSES[getStockLevel()];
     }
 
     /**
@@ -118,43 +479,127 @@ public class Product implements Comparable<Product> {
      * Display product information in formatted table row
      */
     public void display() {
-        String stockColor = getStockStatusColor();
-        System.out.printf("%-8d %-20s %s%-12.2f%s %s%-8d%s %-15s %-12s\n", 
-            id, 
+        System.out.print(getDisplayRow());
+    }
+
+    /**
+     * Display detailed product information
+     */
+    public void displayDetailed() {
+        System.out.print(getDetailedDisplay());
+    }
+
+    /**
+     * Formatted table row (with line break). Rendered once per version and
+     * then served from the cache until the product changes.
+     */
+    public String getDisplayRow() {
+        Product owner = origin != null ? origin : this;
+        int currentVersion = version;
+        Rendered cached = owner.rowCache;
+        if (cached != null && cached.version == currentVersion) {
+            return cached.text;
+        }
+        String text = renderRow();
+        owner.rowCache = new Rendered(currentVersion, text);
+        return text;
+    }
+
+    /**
+     * Detailed multi-line view, cached like getDisplayRow()
+     */
+    public String getDetailedDisplay() {
+        Product owner = origin != null ? origin : this;
+        int currentVersion = version;
+        Rendered cached = owner.detailCache;
+        if (cached != null && cached.version == currentVersion) {
+            return cached.text;
+        }
+        String text = renderDetailed();
+        owner.detailCache = new Rendered(currentVersion, text);
+        return text;
+    }
+
+    private String renderRow() {
+        return String.format("%-8d %-20s %s%-12s%s %s%-8d%s %-15s %-12s\n",
+            id,
             name.length() > 20 ? name.substring(0, 17) + "..." : name,
-            UIConstants.GREEN, price, UIConstants.RESET,
-            stockColor, quantity, UIConstants.RESET,
+            UIConstants.GREEN, Money.format(priceCents), UIConstants.RESET,
+            getStockStatusColor(), quantity, UIConstants.RESET,
             category,
             getStockStatus().replace("_", " ")
         );
     }
 
+    private String renderDetailed() {
+        String border = UIConstants.CYAN + "═══════════════════════════════════════════════════════════════════" + UIConstants.RESET + "\n";
+        return border
+            + String.format("%sProduct ID:%s %d\n", UIConstants.BOLD, UIConstants.RESET, id)
+            + String.format("%sName:%s %s\n", UIConstants.BOLD, UIConstants.RESET, name)
+            + String.format("%sPrice:%s %s$%s%s\n", UIConstants.BOLD, UIConstants.RESET, UIConstants.GREEN, Money.format(priceCents), UIConstants.RESET)
+            + String.format("%sQuantity:%s %s%d%s\n", UIConstants.BOLD, UIConstants.RESET, getStockStatusColor(), quantity, UIConstants.RESET)
+            + String.format("%sCategory:%s %s\n", UIConstants.BOLD, UIConstants.RESET, category)
+            + String.format("%sStock Status:%s %s%s%s\n", UIConstants.BOLD, UIConstants.RESET, getStockStatusColor(), getStockStatus().replace("_", " "), UIConstants.RESET)
+            + String.format("%sCreated:%s %s\n", UIConstants.BOLD, UIConstants.RESET, getCreatedAt().format(DISPLAY_FORMAT))
+            + String.format("%sLast Updated:%s %s\n", UIConstants.BOLD, UIConstants.RESET, getUpdatedAt().format(DISPLAY_FORMAT))
+            + border;
+    }
+
     /**
-     * Display detailed product information
+     * A rendering of the product at one version
      */
-    public void displayDetailed() {
-        System.out.println(UIConstants.CYAN + "═══════════════════════════════════════════════════════════════════" + UIConstants.RESET);
-        System.out.printf("%sProduct ID:%s %d\n", UIConstants.BOLD, UIConstants.RESET, id);
-        System.out.printf("%sName:%s %s\n", UIConstants.BOLD, UIConstants.RESET, name);
-        System.out.printf("%sPrice:%s %s$%.2f%s\n", UIConstants.BOLD, UIConstants.RESET, UIConstants.GREEN, price, UIConstants.RESET);
-        System.out.printf("%sQuantity:%s %s%d%s\n", UIConstants.BOLD, UIConstants.RESET, getStockStatusColor(), quantity, UIConstants.RESET);
-        System.out.printf("%sCategory:%s %s\n", UIConstants.BOLD, UIConstants.RESET, category);
-        System.out.printf("%sStock Status:%s %s%s%s\n", UIConstants.BOLD, UIConstants.RESET, getStockStatusColor(), getStockStatus().replace("_", " "), UIConstants.RESET);
-        System.out.printf("%sCreated:%s %s\n", UIConstants.BOLD, UIConstants.RESET, createdAt.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
-        System.out.printf("%sLast Updated:%s %s\n", UIConstants.BOLD, UIConstants.RESET, updatedAt.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
-        System.out.println(UIConstants.CYAN + "═══════════════════════════════════════════════════════════════════" + UIConstants.RESET);
+    private static class Rendered {
+        final int version;
+        final String text;
+
+        Rendered(int version, String text) {
+            this.version = version;
+            this.text = text;
+        }
     }
 
     /**
      * Convert product to CSV string for file storage
+     * (open reservations are saved as available stock, i.e. released on reload).
+     * Products with a location breakdown get an 8th field "loc:qty;loc:qty".
      */
     public String toFileString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return String.format("%d,%s,%.2f,%d,%s,%s,%s",
-            id, name, price, quantity, category,
-            createdAt.format(formatter),
-            updatedAt.format(formatter)
+        String line = String.format("%d,%s,%s,%d,%s,%s,%s",
+            id, name, Money.format(priceCents), getOnHand(), category,
+            getCreatedAt().format(FILE_FORMAT),
+            getUpdatedAt().format(FILE_FORMAT)
         );
+        return hasLocations() ? line + "," + locationsToString() : line;
+    }
+
+    /**
+     * Location breakdown as "loc:qty;loc:qty"
+     */
+    private synchronized String locationsToString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < locationIds.length; i++) {
+            if (i > 0) sb.append(';');
+            sb.append(locationIds[i]).append(':').append(locationQuantities[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parse a "loc:qty;loc:qty" breakdown into the product
+     */
+    private void parseLocations(String field) {
+        String[] entries = field.split(";");
+        int[] ids = new int[entries.length];
+        int[] quantities = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String[] pair = entries[i].split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid location entry: " + entries[i]);
+            }
+            ids[i] = Integer.parseInt(pair[0].trim());
+            quantities[i] = Integer.parseInt(pair[1].trim());
+        }
+        restoreLocations(ids, quantities);
     }
 
     /**
@@ -170,7 +615,7 @@ public class Product implements Comparable<Product> {
         try {
             int id = Integer.parseInt(parts[0].trim());
             String name = parts[1].trim().isEmpty() ? "Unknown" : parts[1].trim();
-            double price = parts[2].trim().isEmpty() ? 0.0 : Double.parseDouble(parts[2].trim());
+            long priceCents = parts[2].trim().isEmpty() ? 0 : Money.parse(parts[2]);
             int quantity = parts[3].trim().isEmpty() ? 0 : Integer.parseInt(parts[3].trim());
             String category = parts[4].trim().isEmpty() ? "Others" : parts[4].trim();
 
@@ -179,18 +624,21 @@ public class Product implements Comparable<Product> {
 
             // Handle timestamps if available (v2.0 format)
             if (parts.length >= 7) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
                 try {
-                    createdAt = LocalDateTime.parse(parts[5].trim(), formatter);
-                    updatedAt = LocalDateTime.parse(parts[6].trim(), formatter);
+                    createdAt = LocalDateTime.parse(parts[5].trim(), FILE_FORMAT);
+                    updatedAt = LocalDateTime.parse(parts[6].trim(), FILE_FORMAT);
                 } catch (Exception e) {
                     // Use current time if parsing fails
-                    createdAt = LocalDateTime.now();
-                    updatedAt = LocalDateTime.now();
+                    createdAt = null;
+                    updatedAt = null;
                 }
             }
 
-            return new Product(id, name, price, quantity, category, createdAt, updatedAt);
+            Product product = new Product(id, name, priceCents, quantity, category, createdAt, updatedAt);
+            if (parts.length >= 8 && !parts[7].trim().isEmpty()) {
+                product.parseLocations(parts[7].trim());
+            }
+            return product;
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Invalid number format in CSV: " + e.getMessage());
         }
@@ -219,6 +667,6 @@ public class Product implements Comparable<Product> {
 
     @Override
     public String toString() {
-        return String.format("Product{id=%d, name='%s', price=%.2f, quantity=%d, category='%s'}", id, name, price, quantity, category);
+        return String.format("Product{id=%d, name='%s', price=%s, quantity=%d, category='%s'}", id, name, Money.format(priceCents), quantity, category);
     }
 }
\ No newline at end of file
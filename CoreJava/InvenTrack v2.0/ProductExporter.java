@@ -0,0 +1,145 @@
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming export of product queries for InvenTrack v2.0
+ *
+ * Products are pulled one at a time from a lazy Stream and encoded straight
+ * into a buffered writer on a FileChannel, so no result list is built and an
+ * export of any size runs in constant memory.
+ */
+public class ProductExporter {
+    public static final int BUFFER_SIZE = 64 * 1024;
+    public static final String CSV_HEADER =
+            "id,name,price,quantity,reserved,category,stockStatus,createdAt,updatedAt";
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Output formats
+     */
+    public enum Format {
+        CSV("csv"),
+        JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Write every product of the stream to a file, replacing any existing file
+     *
+     * @return the number of products written
+     */
+    public static long export(Stream<Product> products, String fileName, Format format) throws IOException {
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            StringBuilder row = new StringBuilder(256);
+            Iterator<Product> it = products.iterator();
+            while (it.hasNext()) {
+                row.setLength(0);
+                if (format == Format.CSV) {
+                    appendCsv(row, it.next());
+                } else {
+                    appendJson(row, it.next());
+                }
+                row.append('\n');
+                writer.append(row);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private static void appendCsv(StringBuilder sb, Product product) {
+        sb.append(product.getId()).append(',');
+        appendCsvField(sb, product.getName());
+        sb.append(',').append(Money.format(product.getPriceCents()))
+                .append(',').append(product.getQuantity())
+                .append(',').append(product.getReserved()).append(',');
+        appendCsvField(sb, product.getCategory());
+        sb.append(',').append(product.getStockStatus())
+                .append(',').append(product.getCreatedAt().format(TIME_FORMAT))
+                .append(',').append(product.getUpdatedAt().format(TIME_FORMAT));
+    }
+
+    /**
+     * Quote a CSV field if it contains a separator, quote or line break
+     */
+    private static void appendCsvField(StringBuilder sb, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    private static void appendJson(StringBuilder sb, Product product) {
+        sb.append("{\"id\":").append(product.getId())
+                .append(",\"name\":");
+        appendJsonString(sb, product.getName());
+        sb.append(",\"price\":").append(Money.format(product.getPriceCents()))
+                .append(",\"quantity\":").append(product.getQuantity())
+                .append(",\"reserved\":").append(product.getReserved())
+                .append(",\"category\":");
+        appendJsonString(sb, product.getCategory());
+        sb.append(",\"stockStatus\":\"").append(product.getStockStatus())
+                .append("\",\"createdAt\":\"").append(product.getCreatedAt().format(TIME_FORMAT))
+                .append("\",\"updatedAt\":\"").append(product.getUpdatedAt().format(TIME_FORMAT))
+                .append("\"}");
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,197 @@
+import java.util.*;
+
+/**
+ * Multi-key product sorting for InvenTrack v2.0
+ * Sort keys are computed once per product before sorting, so comparisons only
+ * read precomputed values instead of re-normalizing names or stock statuses.
+ */
+public class ProductSorter {
+    // Lists at least this large are sorted with Arrays.parallelSort
+    public static final int PARALLEL_THRESHOLD = 10_000;
+
+    public static final String KEY_HELP = "id, name, price, qty, category, status";
+
+    /**
+     * Sortable product attributes
+     */
+    public enum SortKey {
+        ID, NAME, PRICE, QUANTITY, CATEGORY, STATUS;
+
+        /**
+         * Parse a key name as typed by the user
+         */
+        public static SortKey parse(String text) {
+            switch (text.trim().toLowerCase(Locale.ROOT)) {
+                case "id": return ID;
+                case "name": return NAME;
+                case "price": return PRICE;
+                case "qty":
+                case "quantity": return QUANTITY;
+                case "category": return CATEGORY;
+                case "status":
+                case "stock": return STATUS;
+                default: throw new IllegalArgumentException("Unknown sort key: " + text.trim());
+            }
+        }
+
+        boolean isIntValued() {
+            return this == ID || this == QUANTITY || this == STATUS;
+        }
+    }
+
+    /**
+     * One sort key with its direction
+     */
+    public static class SortField {
+        final SortKey key;
+        final boolean descending;
+
+        public SortField(SortKey key, boolean descending) {
+            this.key = key;
+            this.descending = descending;
+        }
+
+        @Override
+        public String toString() {
+            return key.name().toLowerCase(Locale.ROOT) + (descending ? " (desc)" : " (asc)");
+        }
+    }
+
+    /**
+     * Parse a spec such as "category,-price,name" (a leading '-' means descending)
+     */
+    public static List<SortField> parseSpec(String spec) {
+        List<SortField> fields = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String token = part.trim();
+            if (token.isEmpty()) continue;
+            boolean descending = token.startsWith("-");
+            if (descending || token.startsWith("+")) token = token.substring(1);
+            fields.add(new SortField(SortKey.parse(token), descending));
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No sort keys given");
+        }
+        return fields;
+    }
+
+    /**
+     * Sort the list in place by a single key
+     */
+    public static void sort(List<Product> products, SortKey key, boolean descending) {
+        sort(products, Collections.singletonList(new SortField(key, descending)));
+    }
+
+    /**
+     * Sort the list in place by the given keys (stable)
+     */
+    public static void sort(List<Product> products, List<SortField> fields) {
+        if (products.size() < 2) return;
+
+        if (fields.size() == 1 && fields.get(0).key.isIntValued()) {
+            sortByIntKey(products, fields.get(0));
+            return;
+        }
+
+        Row[] rows = new Row[products.size()];
+        int i = 0;
+        for (Product product : products) {
+            rows[i++] = new Row(product);
+        }
+
+        Comparator<Row> comparator = comparatorFor(fields);
+        if (rows.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(rows, comparator);
+        } else {
+            Arrays.sort(rows, comparator);
+        }
+
+        ListIterator<Product> it = products.listIterator();
+        for (Row row : rows) {
+            it.next();
+            it.set(row.product);
+        }
+    }
+
+    /**
+     * Single int-valued key: pack (key, original index) into one long per product
+     * and sort the primitive array, no comparator calls at all. Keeping the index
+     * in the low bits makes the sort stable.
+     */
+    private static void sortByIntKey(List<Product> products, SortField field) {
+        Product[] source = products.toArray(new Product[0]);
+        long[] packed = new long[source.length];
+        for (int i = 0; i < source.length; i++) {
+            int value = intKey(source[i], field.key);
+            if (field.descending) value = ~value;
+            packed[i] = ((long) value << 32) | i;
+        }
+
+        if (packed.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+
+        ListIterator<Product> it = products.listIterator();
+        for (long entry : packed) {
+            it.next();
+            it.set(source[(int) entry]);
+        }
+    }
+
+    private static int intKey(Product product, SortKey key) {
+        switch (key) {
+            case ID: return product.getId();
+            case QUANTITY: return product.getQuantity();
+            case STATUS: return product.getStockLevel();
+            default: throw new IllegalArgumentException("Not an int key: " + key);
+        }
+    }
+
+    private static Comparator<Row> comparatorFor(List<SortField> fields) {
+        SortField[] order = fields.toArray(new SortField[0]);
+        return (a, b) -> {
+            for (SortField field : order) {
+                int result = compareBy(field.key, a, b);
+                if (result != 0) return field.descending ? -result : result;
+            }
+            return 0;
+        };
+    }
+
+    private static int compareBy(SortKey key, Row a, Row b) {
+        switch (key) {
+            case ID: return Integer.compare(a.id, b.id);
+            case NAME: return a.nameKey.compareTo(b.nameKey);
+            case PRICE: return Long.compare(a.priceCents, b.priceCents);
+            case QUANTITY: return Integer.compare(a.quantity, b.quantity);
+            case CATEGORY: return a.categoryKey.compareTo(b.categoryKey);
+            case STATUS: return Integer.compare(a.stockLevel, b.stockLevel);
+            default: return 0;
+        }
+    }
+
+    /**
+     * Sort keys of one product, computed once before sorting
+     */
+    private static class Row {
+        final Product product;
+        final int id;
+        final String nameKey;
+        final long priceCents;
+        final int quantity;
+        final String categoryKey;
+        final int stockLevel;
+
+        Row(Product product) {
+            this.product = product;
+            this.id = product.getId();
+            this.nameKey = product.getName().toLowerCase(Locale.ROOT);
+            this.priceCents = product.getPriceCents();
+            this.quantity = product.getQuantity();
+            this.categoryKey = product.getCategory().toLowerCase(Locale.ROOT);
+            this.stockLevel = product.getStockLevel();
+        }
+    }
+}
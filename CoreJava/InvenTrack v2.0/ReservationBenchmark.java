@@ -0,0 +1,168 @@
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention benchmark for the InvenTrack v2.0 stock reservation API
+ *
+ * Many threads check out the same hot SKU until it sells out. Each checkout
+ * reserves 1-3 units and then commits (or, one time in ten, releases) them.
+ * The run fails if more units are sold than were in stock.
+ *
+ * Both variants call the same Product methods, so they pay for the same
+ * movement log, running totals, version bumps and alert publishing (with a
+ * listener subscribed); the baseline only adds one monitor around each call.
+ *
+ * Usage: java ReservationBenchmark [threads] [stock] [rounds]
+ */
+public class ReservationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+        int stock = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        UIConstants.printHeader("RESERVATION CONTENTION BENCHMARK");
+        System.out.printf("Threads: %d | Stock per round: %,d | Rounds: %d (first round is warm-up)\n\n",
+                threads, stock, rounds);
+
+        LongAdder alerts = new LongAdder();
+        StockAlertStream.Listener listener = alert -> alerts.increment();
+        StockAlertStream.subscribe(listener);
+
+        boolean allPassed = true;
+        for (int round = 1; round <= rounds; round++) {
+            Product lockFree = new Product(1, "Hot SKU", 9.99, stock, "Electronics");
+            Product locked = new Product(2, "Hot SKU", 9.99, stock, "Electronics");
+            InventoryTotals.onAdded(lockFree);
+            InventoryTotals.onAdded(locked);
+            Result casResult = run(threads, stock, new CasStock(lockFree));
+            Result lockedResult = run(threads, stock, new LockedStock(locked));
+            InventoryTotals.onRemoved(lockFree);
+            InventoryTotals.onRemoved(locked);
+
+            if (round > 1) {
+                print("compare-and-set", casResult);
+                print("synchronized", lockedResult);
+                UIConstants.printSeparator();
+            }
+            allPassed &= check(casResult, stock) && check(lockedResult, stock);
+            StockMovementLog.forget(1);
+            StockMovementLog.forget(2);
+        }
+        StockAlertStream.unsubscribe(listener);
+
+        if (allPassed) {
+            UIConstants.printSuccess("No overselling detected in any round.");
+        } else {
+            UIConstants.printError("Oversell detected!");
+            System.exit(1);
+        }
+    }
+
+    private static Result run(int threads, int stock, Stock sku) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder sold = new LongAdder();
+        LongAdder checkouts = new LongAdder();
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (true) {
+                    int units = 1 + random.nextInt(3);
+                    if (!sku.tryReserve(units)) {
+                        // Sold out once nothing is available and no reservation can be released
+                        if (sku.available() == 0 && sku.reserved() == 0) break;
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (random.nextInt(10) == 0) {
+                        sku.release(units);
+                    } else {
+                        sku.commit(units);
+                        sold.add(units);
+                    }
+                    checkouts.increment();
+                }
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - startNanos;
+
+        return new Result(sold.sum(), checkouts.sum(), sku.available(), elapsed);
+    }
+
+    private static void print(String label, Result result) {
+        double seconds = result.nanos / 1e9;
+        System.out.printf("%-16s: %s%,12.0f checkouts/s%s | %,d units sold in %.3f s\n",
+                label, UIConstants.GREEN, result.checkouts / seconds, UIConstants.RESET, result.sold, seconds);
+    }
+
+    private static boolean check(Result result, int stock) {
+        return result.sold <= stock && result.remaining >= 0 && result.sold + result.remaining == stock;
+    }
+
+    /**
+     * Minimal view of a SKU used by the benchmark threads
+     */
+    private interface Stock {
+        boolean tryReserve(int units);
+        void commit(int units);
+        void release(int units);
+        int available();
+        int reserved();
+    }
+
+    /**
+     * The Product reservation API under test
+     */
+    private static class CasStock implements Stock {
+        private final Product product;
+
+        CasStock(Product product) { this.product = product; }
+
+        public boolean tryReserve(int units) { return product.tryReserve(units); }
+        public void commit(int units) { product.commitReservation(units); }
+        public void release(int units) { product.releaseReservation(units); }
+        public int available() { return product.getQuantity(); }
+        public int reserved() { return product.getReserved(); }
+    }
+
+    /**
+     * Baseline: the same Product calls, serialized by a single monitor
+     */
+    private static class LockedStock implements Stock {
+        private final Product product;
+
+        LockedStock(Product product) { this.product = product; }
+
+        public synchronized boolean tryReserve(int units) { return product.tryReserve(units); }
+        public synchronized void commit(int units) { product.commitReservation(units); }
+        public synchronized void release(int units) { product.releaseReservation(units); }
+        public synchronized int available() { return product.getQuantity(); }
+        public synchronized int reserved() { return product.getReserved(); }
+    }
+
+    private static class Result {
+        final long sold;
+        final long checkouts;
+        final long remaining;
+        final long nanos;
+
+        Result(long sold, long checkouts, long remaining, long nanos) {
+            this.sold = sold;
+            this.checkouts = checkouts;
+            this.remaining = remaining;
+            this.nanos = nanos;
+        }
+    }
+}
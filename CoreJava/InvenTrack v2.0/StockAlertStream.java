@@ -0,0 +1,158 @@
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Push-based stock alerts for InvenTrack v2.0
+ *
+ * Product publishes an alert whenever its available quantity crosses into or out
+ * of the LOW_STOCK / OUT_OF_STOCK levels of Product.getStockStatus(). Alerts are
+ * queued and delivered to listeners on a background dispatcher thread.
+ * Publishing never blocks or takes a lock, since it runs on the reservation
+ * paths: the queue is a lock-free linked queue with a bounded size, and if
+ * listeners fall behind, new alerts are dropped and counted instead.
+ */
+public class StockAlertStream {
+    public static final int QUEUE_CAPACITY = 1024;
+
+    private static final Queue<StockAlert> queue = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queued = new AtomicInteger();
+    private static final LongAdder dropped = new LongAdder();
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile Thread dispatcher;
+
+    /**
+     * Receives stock alerts (called on the dispatcher thread)
+     */
+    public interface Listener {
+        void onAlert(StockAlert alert);
+    }
+
+    /**
+     * Register a listener; the dispatcher thread starts with the first one
+     */
+    public static synchronized void subscribe(Listener listener) {
+        if (dispatcher == null) {
+            Thread thread = new Thread(StockAlertStream::dispatchLoop, "stock-alert-dispatcher");
+            thread.setDaemon(true);
+            thread.start();
+            dispatcher = thread; // publishers only wake it once a listener exists
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener
+     */
+    public static void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Called by Product after its available quantity changed. O(1) when the
+     * stock level does not cross a LOW / OUT boundary.
+     */
+    static void onQuantityChange(Product product, int oldQuantity, int newQuantity) {
+        if (listeners.isEmpty()) return;
+
+        int oldLevel = Product.stockLevelOf(oldQuantity);
+        int newLevel = Product.stockLevelOf(newQuantity);
+        if (oldLevel == newLevel) return;
+        if (oldLevel > Product.LOW_STOCK && newLevel > Product.LOW_STOCK) return;
+
+        if (queued.getAndIncrement() >= QUEUE_CAPACITY) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(new StockAlert(product.getId(), product.getName(), oldLevel, newLevel, newQuantity));
+        LockSupport.unpark(dispatcher);
+    }
+
+    /**
+     * Number of alerts waiting for delivery
+     */
+    public static int pending() {
+        return queued.get();
+    }
+
+    /**
+     * Number of alerts dropped because the queue was full
+     */
+    public static long dropped() {
+        return dropped.sum();
+    }
+
+    private static void dispatchLoop() {
+        while (true) {
+            StockAlert alert = queue.poll();
+            if (alert == null) {
+                LockSupport.park(); // woken by the next publish
+                if (Thread.interrupted()) return;
+                continue;
+            }
+            queued.decrementAndGet();
+            for (Listener listener : listeners) {
+                try {
+                    listener.onAlert(alert);
+                } catch (RuntimeException e) {
+                    System.err.println("Stock alert listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * A stock level transition of one product
+     */
+    public static class StockAlert {
+        private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
+        private final int productId;
+        private final String productName;
+        private final int oldLevel;
+        private final int newLevel;
+        private final int quantity;
+        private final long raisedAtMillis; // epoch millis, see CoarseClock
+
+        StockAlert(int productId, String productName, int oldLevel, int newLevel, int quantity) {
+            this.productId = productId;
+            this.productName = productName;
+            this.oldLevel = oldLevel;
+            this.newLevel = newLevel;
+            this.quantity = quantity;
+            this.raisedAtMillis = CoarseClock.millis();
+        }
+
+        public int getProductId() { return productId; }
+        public String getProductName() { return productName; }
+        public String getOldStatus() { return Product.STOCK_STATUSES[oldLevel]; }
+        public String getNewStatus() { return Product.STOCK_STATUSES[newLevel]; }
+        public int getQuantity() { return quantity; }
+        public long getRaisedAtMillis() { return raisedAtMillis; }
+
+        /**
+         * Time the alert was raised as LocalDateTime (allocated on each call, for display)
+         */
+        public LocalDateTime getRaisedAt() { return CoarseClock.toLocalDateTime(raisedAtMillis); }
+
+        /**
+         * True if stock went up (e.g. after a restock), false if it ran low
+         */
+        public boolean isRecovery() {
+            return newLevel > oldLevel;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s] #%d %s: %s -> %s (%d left)",
+                    getRaisedAt().format(TIME_FORMAT), productId, productName,
+                    getOldStatus().replace("_", " "), getNewStatus().replace("_", " "), quantity);
+        }
+    }
+}
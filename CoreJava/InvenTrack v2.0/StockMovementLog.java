@@ -0,0 +1,225 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stock movement log for InvenTrack v2.0
+ * Adds every quantity change to hourly and daily sold/received buckets per
+ * product, so memory per product is fixed, busy products never lose history
+ * inside a window, and analytics sum at most 30 buckets instead of rescanning.
+ */
+public class StockMovementLog {
+    public static final long HOUR_MILLIS = 60L * 60 * 1000;
+    public static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    // Buckets kept per product: hours for the 24h window, days for the longer ones
+    private static final int HOUR_SLOTS = 24;
+    private static final int DAY_SLOTS = 30;
+
+    // Sliding windows used for velocity analytics
+    public static final long[] WINDOWS = { DAY_MILLIS, 7 * DAY_MILLIS, 30 * DAY_MILLIS };
+    public static final String[] WINDOW_LABELS = { "24h", "7d", "30d" };
+    public static final int WINDOW_DAY = 0;
+    public static final int WINDOW_WEEK = 1;
+    public static final int WINDOW_MONTH = 2;
+
+    // Reorder point parameters (days)
+    public static final int LEAD_TIME_DAYS = 7;
+    public static final int SAFETY_STOCK_DAYS = 3;
+
+    private static final Map<Integer, Series> seriesByProduct = new ConcurrentHashMap<>();
+
+    /**
+     * Record a quantity change for a product
+     */
+    public static void record(int productId, int delta) {
+        if (delta == 0) return;
+        long now = CoarseClock.millis();
+        Series series = seriesByProduct.get(productId);
+        if (series == null) {
+            series = seriesByProduct.computeIfAbsent(productId, id -> new Series(now));
+        }
+        series.append(now, delta);
+    }
+
+    /**
+     * Get the movement series of a product (null if it never moved)
+     */
+    public static Series get(int productId) {
+        return seriesByProduct.get(productId);
+    }
+
+    /**
+     * Drop the history of a deleted product
+     */
+    public static void forget(int productId) {
+        seriesByProduct.remove(productId);
+    }
+
+    /**
+     * Number of products with recorded movements
+     */
+    public static int trackedProducts() {
+        return seriesByProduct.size();
+    }
+
+    /**
+     * Reorder point: expected demand over the lead time plus safety stock
+     */
+    public static int reorderPoint(double dailyVelocity) {
+        return (int) Math.ceil(dailyVelocity * (LEAD_TIME_DAYS + SAFETY_STOCK_DAYS));
+    }
+
+    /**
+     * Days until stock runs out at the given velocity (infinite if nothing sells)
+     */
+    public static double daysOfCover(int quantity, double dailyVelocity) {
+        return dailyVelocity > 0 ? quantity / dailyVelocity : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Movement totals of one product in time buckets: an hourly ring covers the
+     * 24h window and a daily ring the 7d and 30d windows. Each slot remembers
+     * which hour (or day) it holds and is cleared when that period is reused,
+     * so every movement stays counted until it ages out of its window, however
+     * many movements arrive. Windows are summed at bucket resolution.
+     * Recording is lock-free (striped counters), so concurrent sales of the same
+     * product do not queue on a monitor.
+     */
+    public static class Series {
+        private final Buckets hours = new Buckets(HOUR_SLOTS, HOUR_MILLIS);
+        private final Buckets days = new Buckets(DAY_SLOTS, DAY_MILLIS);
+        private final long firstRecordedAt;
+        private final LongAccumulator lastMovementAt = new LongAccumulator(Math::max, -1);
+        private final LongAdder movements = new LongAdder();
+
+        Series(long firstRecordedAt) {
+            this.firstRecordedAt = firstRecordedAt;
+        }
+
+        void append(long now, int delta) {
+            lastMovementAt.accumulate(now);
+            movements.increment();
+            hours.add(now, delta);
+            days.add(now, delta);
+        }
+
+        private Buckets bucketsFor(int window) {
+            return WINDOWS[window] <= DAY_MILLIS ? hours : days;
+        }
+
+        /**
+         * Units removed from stock within the window
+         */
+        public long getUnitsSold(int window, long now) {
+            return bucketsFor(window).sold(WINDOWS[window], now);
+        }
+
+        /**
+         * Units added to stock within the window
+         */
+        public long getUnitsReceived(int window, long now) {
+            return bucketsFor(window).received(WINDOWS[window], now);
+        }
+
+        /**
+         * Average units sold per day over the window. While the history is shorter
+         * than the window, the observed span (at least one day) is used instead.
+         */
+        public double getDailyVelocity(int window, long now) {
+            long span = Math.min(WINDOWS[window], Math.max(DAY_MILLIS, now - firstRecordedAt));
+            return bucketsFor(window).sold(WINDOWS[window], now) * (double) DAY_MILLIS / span;
+        }
+
+        /**
+         * Total movements recorded
+         */
+        public long totalMovements() {
+            return movements.sum();
+        }
+
+        /**
+         * Timestamp of the latest movement (-1 if none)
+         */
+        public long getLastMovementAt() {
+            return lastMovementAt.get();
+        }
+    }
+
+    /**
+     * Ring of per-period sold/received counters; slot = period % slots.
+     * Adding to the current period only touches striped counters; the monitor is
+     * taken once per slot and period, to clear a slot when a new period starts.
+     */
+    private static class Buckets {
+        private final long periodMillis;
+        private final AtomicLongArray periods;
+        private final LongAdder[] sold;
+        private final LongAdder[] received;
+
+        Buckets(int slots, long periodMillis) {
+            this.periodMillis = periodMillis;
+            this.periods = new AtomicLongArray(slots);
+            this.sold = new LongAdder[slots];
+            this.received = new LongAdder[slots];
+            for (int slot = 0; slot < slots; slot++) {
+                periods.set(slot, -1);
+                sold[slot] = new LongAdder();
+                received[slot] = new LongAdder();
+            }
+        }
+
+        void add(long time, int delta) {
+            long period = time / periodMillis;
+            int slot = (int) (period % periods.length());
+            if (periods.get(slot) != period && !startPeriod(slot, period)) {
+                return; // older than the whole ring
+            }
+            if (delta < 0) {
+                sold[slot].add(-(long) delta);
+            } else {
+                received[slot].add(delta);
+            }
+        }
+
+        /**
+         * Reuse a slot for a newer period; false if the slot already holds a newer one
+         */
+        private synchronized boolean startPeriod(int slot, long period) {
+            long current = periods.get(slot);
+            if (current > period) return false;
+            if (current < period) {
+                sold[slot].reset();
+                received[slot].reset();
+                periods.set(slot, period);
+            }
+            return true;
+        }
+
+        long sold(long windowMillis, long now) {
+            return sum(sold, windowMillis, now);
+        }
+
+        long received(long windowMillis, long now) {
+            return sum(received, windowMillis, now);
+        }
+
+        /**
+         * Total of the slots whose period lies in the window ending now
+         */
+        private long sum(LongAdder[] totals, long windowMillis, long now) {
+            long current = now / periodMillis;
+            long oldest = current - windowMillis / periodMillis;
+            long total = 0;
+            for (int slot = 0; slot < totals.length; slot++) {
+                long period = periods.get(slot);
+                if (period > oldest && period <= current) {
+                    total += totals[slot].sum();
+                }
+            }
+            return total;
+        }
+    }
+}
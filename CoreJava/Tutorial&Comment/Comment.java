@@ -2,9 +2,15 @@ import java.util.Scanner;
 
 // Represents a comment on a tutorial
 class Comment {
+    static final int MIN_RATING = 1;
+    static final int MAX_RATING = 5;
+
     String username;
     String text;
     int rating; // 1 to 5
+    long seq;   // order of arrival within the tutorial, set by CommentLog
+    int tutorialId; // set when the comment is added to a tutorial
+    long indexOrder; // order of arrival across all tutorials, set by CommentIndex
 
     public Comment(String username, String text, int rating) {
         this.username = username;
@@ -12,6 +18,10 @@ class Comment {
         this.rating = rating;
     }
 
+    static boolean isValidRating(int rating) {
+        return rating >= MIN_RATING && rating <= MAX_RATING;
+    }
+
     public void display() {
         System.out.println(" User: " + username);
         System.out.println(" Comment: " + text);
@@ -0,0 +1,113 @@
+import java.util.*;
+
+// Inverted indexes over the comments of all tutorials: word -> comments whose
+// text contains it, and username -> comments written by that user (both
+// case-insensitive). Every comment gets a global arrival number when it is
+// first indexed, and postings are sorted by it, so results come out oldest
+// first even after a comment is edited. Tutorials update the index as comments
+// change, so searches never have to walk the tutorials.
+class CommentIndex {
+    private static final Comparator<Comment> OLDEST_FIRST = Comparator.comparingLong(c -> c.indexOrder);
+
+    private final Map<String, TreeSet<Comment>> byWord = new HashMap<>();
+    private final Map<String, TreeSet<Comment>> byUser = new HashMap<>();
+    private long nextOrder = 1;
+
+    void add(Comment c) {
+        // Comments loaded from a snapshot keep the order they were saved with
+        if (c.indexOrder == 0) {
+            c.indexOrder = nextOrder++;
+        } else {
+            nextOrder = Math.max(nextOrder, c.indexOrder + 1);
+        }
+        for (String word : words(c.text)) {
+            postings(byWord, word).add(c);
+        }
+        postings(byUser, userKey(c.username)).add(c);
+    }
+
+    void remove(Comment c) {
+        for (String word : words(c.text)) {
+            removePosting(byWord, word, c);
+        }
+        removePosting(byUser, userKey(c.username), c);
+    }
+
+    // Call before a comment's text changes
+    void removeText(Comment c) {
+        for (String word : words(c.text)) {
+            removePosting(byWord, word, c);
+        }
+    }
+
+    // Call after a comment's text changed
+    void addText(Comment c) {
+        for (String word : words(c.text)) {
+            postings(byWord, word).add(c);
+        }
+    }
+
+    // Comments containing every word of the query, oldest first
+    public Comment[] search(String query) {
+        Set<String> words = words(query);
+        if (words.isEmpty()) {
+            return new Comment[0];
+        }
+        // Intersect starting from the shortest postings list
+        List<TreeSet<Comment>> postings = new ArrayList<>();
+        for (String word : words) {
+            TreeSet<Comment> list = byWord.get(word);
+            if (list == null) {
+                return new Comment[0];
+            }
+            postings.add(list);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        List<Comment> result = new ArrayList<>();
+        for (Comment c : postings.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < postings.size() && inAll; i++) {
+                inAll = postings.get(i).contains(c);
+            }
+            if (inAll) {
+                result.add(c);
+            }
+        }
+        return result.toArray(new Comment[0]);
+    }
+
+    // All comments written by a user, oldest first
+    public Comment[] byUser(String username) {
+        TreeSet<Comment> list = byUser.get(userKey(username));
+        return list == null ? new Comment[0] : list.toArray(new Comment[0]);
+    }
+
+    // Distinct lower-case words of a text
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String userKey(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static TreeSet<Comment> postings(Map<String, TreeSet<Comment>> index, String key) {
+        return index.computeIfAbsent(key, k -> new TreeSet<>(OLDEST_FIRST));
+    }
+
+    private static void removePosting(Map<String, TreeSet<Comment>> index, String key, Comment c) {
+        TreeSet<Comment> list = index.get(key);
+        if (list != null) {
+            list.remove(c);
+            if (list.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Append-only comment storage for one tutorial, kept in fixed-size chunks.
+// Appends never copy existing comments; deletes leave a tombstone (null slot)
+// and the gaps are squeezed out by a compaction pass on a background thread
+// once enough of them pile up. Comments are addressed by their position among
+// the live comments (0 = oldest), or paged with cursors (sequence numbers).
+class CommentLog {
+    static final int CHUNK_SIZE = 256;
+
+    // One daemon thread compacts the logs of all tutorials
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "comment-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Comment[][] chunks = new Comment[4][];
+    private long[][] seqChunks = new long[4][]; // seq of each slot, kept for tombstones too
+    private int[] liveInChunk = new int[4];
+    private int chunkCount = 0;
+    private int slotCount = 0; // used slots, including tombstones
+    private int size = 0;      // live comments
+    private long nextSeq = 1;
+    private boolean compactionScheduled = false;
+
+    // Number of live comments
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Add a comment at the end; it gets the next sequence number of this log
+    public synchronized void append(Comment c) {
+        int chunk = slotCount / CHUNK_SIZE;
+        if (chunk == chunkCount) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                seqChunks = Arrays.copyOf(seqChunks, chunkCount * 2);
+                liveInChunk = Arrays.copyOf(liveInChunk, chunkCount * 2);
+            }
+            seqChunks[chunkCount] = new long[CHUNK_SIZE];
+            chunks[chunkCount++] = new Comment[CHUNK_SIZE];
+        }
+        c.seq = nextSeq++;
+        chunks[chunk][slotCount % CHUNK_SIZE] = c;
+        seqChunks[chunk][slotCount % CHUNK_SIZE] = c.seq;
+        liveInChunk[chunk]++;
+        slotCount++;
+        size++;
+    }
+
+    // Live comment at a position (0 = oldest)
+    public synchronized Comment get(int index) {
+        int slot = slotOf(index);
+        return chunks[slot / CHUNK_SIZE][slot % CHUNK_SIZE];
+    }
+
+    // Delete the live comment at a position; returns the removed comment
+    public synchronized Comment remove(int index) {
+        int slot = slotOf(index);
+        int chunk = slot / CHUNK_SIZE;
+        Comment removed = chunks[chunk][slot % CHUNK_SIZE];
+        chunks[chunk][slot % CHUNK_SIZE] = null;
+        liveInChunk[chunk]--;
+        size--;
+        int tombstones = slotCount - size;
+        if (tombstones >= CHUNK_SIZE && tombstones * 4 >= slotCount && !compactionScheduled) {
+            compactionScheduled = true;
+            COMPACTOR.execute(this::compact);
+        }
+        return removed;
+    }
+
+    // Live comments in order
+    public synchronized Comment[] toArray() {
+        Comment[] result = new Comment[size];
+        int n = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            Comment[] chunk = chunks[c];
+            if (liveInChunk[c] == CHUNK_SIZE) {
+                System.arraycopy(chunk, 0, result, n, CHUNK_SIZE);
+                n += CHUNK_SIZE;
+                continue;
+            }
+            for (int i = 0; i < CHUNK_SIZE && n < size; i++) {
+                if (chunk[i] != null) {
+                    result[n++] = chunk[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    // One page of comments and the cursors to move on from it
+    static class Page {
+        final Comment[] comments;
+        final int firstIndex;     // position of comments[0] among the live comments
+        final boolean hasPrevious;
+        final boolean hasNext;
+
+        Page(Comment[] comments, int firstIndex, boolean hasPrevious, boolean hasNext) {
+            this.comments = comments;
+            this.firstIndex = firstIndex;
+            this.hasPrevious = hasPrevious;
+            this.hasNext = hasNext;
+        }
+
+        // Cursor for the page before this one
+        long previousCursor() {
+            return comments.length == 0 ? 0 : comments[0].seq;
+        }
+
+        // Cursor for the page after this one
+        long nextCursor() {
+            return comments.length == 0 ? 0 : comments[comments.length - 1].seq;
+        }
+    }
+
+    // Up to pageSize comments that arrived after the cursor (0 = from the start).
+    // The cursor is found by binary search, so a page costs O(log n + page size).
+    public synchronized Page pageAfter(long cursor, int pageSize) {
+        int slot = firstSlotAfter(cursor);
+        Comment[] page = new Comment[pageSize];
+        int n = 0;
+        int firstSlot = -1;
+        while (slot < slotCount && n < pageSize) {
+            Comment c = commentAt(slot);
+            if (c != null) {
+                if (firstSlot < 0) firstSlot = slot;
+                page[n++] = c;
+            }
+            slot++;
+        }
+        if (n == 0) {
+            return new Page(new Comment[0], size, size > 0, false);
+        }
+        return newPage(Arrays.copyOf(page, n), firstSlot);
+    }
+
+    // Up to pageSize comments that arrived just before the cursor
+    public synchronized Page pageBefore(long cursor, int pageSize) {
+        int slot = firstSlotAfter(cursor - 1) - 1;
+        Comment[] page = new Comment[pageSize];
+        int n = 0;
+        while (slot >= 0 && n < pageSize) {
+            Comment c = commentAt(slot);
+            if (c != null) {
+                page[pageSize - 1 - n++] = c;
+            }
+            slot--;
+        }
+        if (n < pageSize) {
+            return pageAfter(0, pageSize); // reached the start: show the first full page
+        }
+        int firstSlot = slot + 1;
+        while (commentAt(firstSlot) == null) {
+            firstSlot++;
+        }
+        return newPage(page, firstSlot);
+    }
+
+    private Page newPage(Comment[] comments, int firstSlot) {
+        int firstIndex = rank(firstSlot);
+        return new Page(comments, firstIndex, firstIndex > 0, firstIndex + comments.length < size);
+    }
+
+    private Comment commentAt(int slot) {
+        return chunks[slot / CHUNK_SIZE][slot % CHUNK_SIZE];
+    }
+
+    // First slot whose sequence number is greater than seq (slotCount if none)
+    private int firstSlotAfter(long seq) {
+        int low = 0;
+        int high = slotCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (seqChunks[mid / CHUNK_SIZE][mid % CHUNK_SIZE] <= seq) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Position of a live slot among the live comments (whole chunks are
+    // counted by their live totals, so this is O(chunks + CHUNK_SIZE))
+    private int rank(int slot) {
+        int chunk = slot / CHUNK_SIZE;
+        int r = 0;
+        for (int c = 0; c < chunk; c++) {
+            r += liveInChunk[c];
+        }
+        Comment[] comments = chunks[chunk];
+        for (int i = chunk * CHUNK_SIZE; i < slot; i++) {
+            if (comments[i % CHUNK_SIZE] != null) r++;
+        }
+        return r;
+    }
+
+    // Slide the live comments down over the tombstones and drop emptied chunks
+    synchronized void compact() {
+        compactionScheduled = false;
+        if (slotCount == size) {
+            return;
+        }
+        int write = 0;
+        for (int read = 0; read < slotCount; read++) {
+            Comment c = chunks[read / CHUNK_SIZE][read % CHUNK_SIZE];
+            if (c != null) {
+                chunks[write / CHUNK_SIZE][write % CHUNK_SIZE] = c;
+                seqChunks[write / CHUNK_SIZE][write % CHUNK_SIZE] = c.seq;
+                write++;
+            }
+        }
+        int usedChunks = (write + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (usedChunks > 0) {
+            Arrays.fill(chunks[usedChunks - 1], write - (usedChunks - 1) * CHUNK_SIZE, CHUNK_SIZE, null);
+        }
+        Arrays.fill(chunks, usedChunks, chunkCount, null);
+        Arrays.fill(seqChunks, usedChunks, chunkCount, null);
+        for (int c = 0; c < usedChunks; c++) {
+            liveInChunk[c] = Math.min(CHUNK_SIZE, write - c * CHUNK_SIZE);
+        }
+        Arrays.fill(liveInChunk, usedChunks, chunkCount, 0);
+        chunkCount = usedChunks;
+        slotCount = write;
+    }
+
+    // Slot number of the live comment at a position: skip whole chunks by
+    // their live counts, then scan inside one chunk
+    private int slotOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int c = 0;
+        while (index >= liveInChunk[c]) {
+            index -= liveInChunk[c++];
+        }
+        Comment[] chunk = chunks[c];
+        if (liveInChunk[c] == CHUNK_SIZE) {
+            return c * CHUNK_SIZE + index;
+        }
+        for (int i = 0; ; i++) {
+            if (chunk[i] != null && index-- == 0) {
+                return c * CHUNK_SIZE + i;
+            }
+        }
+    }
+}
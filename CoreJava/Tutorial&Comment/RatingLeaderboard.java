@@ -0,0 +1,50 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+// Rated tutorials ordered by average rating (best first), then by number of
+// ratings, then by ID. A tutorial is taken out before its ratings change and
+// put back afterwards, so the order is always current and the top N is a
+// walk over the first N entries.
+class RatingLeaderboard {
+    private static final Comparator<Tutorial> ORDER = (a, b) -> {
+        // Compare averages sum/count without dividing
+        int byAverage = Long.compare(b.ratingSum * a.ratingCount, a.ratingSum * b.ratingCount);
+        if (byAverage != 0) {
+            return byAverage;
+        }
+        int byCount = Integer.compare(b.ratingCount, a.ratingCount);
+        return byCount != 0 ? byCount : Integer.compare(a.tutorialId, b.tutorialId);
+    };
+
+    private final TreeSet<Tutorial> ranking = new TreeSet<>(ORDER);
+
+    // Call before a tutorial's ratings change
+    void remove(Tutorial t) {
+        if (t.ratingCount > 0) {
+            ranking.remove(t);
+        }
+    }
+
+    // Call after a tutorial's ratings changed
+    void add(Tutorial t) {
+        if (t.ratingCount > 0) {
+            ranking.add(t);
+        }
+    }
+
+    // Number of tutorials with at least one rating
+    public int size() {
+        return ranking.size();
+    }
+
+    // The n best rated tutorials, best first
+    public Tutorial[] top(int n) {
+        Tutorial[] result = new Tutorial[Math.min(n, ranking.size())];
+        Iterator<Tutorial> it = ranking.iterator();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = it.next();
+        }
+        return result;
+    }
+}
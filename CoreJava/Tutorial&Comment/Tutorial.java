@@ -5,8 +5,14 @@ class Tutorial {
     int tutorialId;
     String title;
     String description;
-    Comment[] comments = new Comment[10];
-    int commentCount = 0;
+    CommentLog comments = new CommentLog();
+
+    // Running rating aggregates over the live comments
+    int ratingCount = 0;
+    long ratingSum = 0;
+    int[] ratingHistogram = new int[Comment.MAX_RATING + 1]; // index = rating
+    RatingLeaderboard leaderboard; // set when registered
+    CommentIndex commentIndex;     // set when registered
 
     public Tutorial(int tutorialId, String title, String description) {
         this.tutorialId = tutorialId;
@@ -14,58 +20,122 @@ class Tutorial {
         this.description = description;
     }
 
-    // Add a comment to this tutorial
-    public void addComment(Comment c) {
-        if (commentCount < comments.length) {
-            comments[commentCount++] = c;
-            System.out.println("Comment added successfully!");
-        } else {
-            System.out.println("Cannot add more comments. Limit reached!!!");
+    // Add a comment to this tutorial; false if the rating is out of range
+    public boolean addComment(Comment c) {
+        if (!Comment.isValidRating(c.rating)) {
+            return false;
+        }
+        c.tutorialId = tutorialId;
+        comments.append(c);
+        if (commentIndex != null) {
+            commentIndex.add(c);
         }
+        beforeRatingChange();
+        addRating(c.rating);
+        afterRatingChange();
+        return true;
     }
 
-    // Display all comments
-    public void viewComments() {
-        if (commentCount == 0) {
+    // Display one page of comments, numbered by their position in the tutorial
+    public void viewComments(CommentLog.Page page) {
+        if (page.comments.length == 0) {
             System.out.println("No comments yet.");
             return;
         }
-        for (int i = 0; i < commentCount; i++) {
-            System.out.println("Comment #" + (i + 1) + ":");
-            comments[i].display();
+        for (int i = 0; i < page.comments.length; i++) {
+            System.out.println("Comment #" + (page.firstIndex + i + 1) + ":");
+            page.comments[i].display();
             System.out.println("-----------------------");
         }
+        System.out.println("Showing comments " + (page.firstIndex + 1) + "-"
+                + (page.firstIndex + page.comments.length) + " of " + comments.size());
+    }
+
+    // Update a specific comment; false if the index or rating is invalid
+    public boolean updateComment(int index, String newText, int newRating) {
+        if (!Comment.isValidRating(newRating) || index < 0 || index >= comments.size()) {
+            return false;
+        }
+        Comment c = comments.get(index);
+        beforeRatingChange();
+        removeRating(c.rating);
+        addRating(newRating);
+        afterRatingChange();
+        if (commentIndex != null) {
+            commentIndex.removeText(c);
+        }
+        c.text = newText;
+        c.rating = newRating;
+        if (commentIndex != null) {
+            commentIndex.addText(c);
+        }
+        return true;
+    }
+
+    // Delete a specific comment; false if the index is invalid
+    public boolean deleteComment(int index) {
+        if (index < 0 || index >= comments.size()) {
+            return false;
+        }
+        Comment removed = comments.remove(index);
+        if (commentIndex != null) {
+            commentIndex.remove(removed);
+        }
+        beforeRatingChange();
+        removeRating(removed.rating);
+        afterRatingChange();
+        return true;
+    }
+
+    // Average rating, or 0 if there are no ratings
+    public double getAverageRating() {
+        return ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+    }
+
+    // Display average and per-star counts, e.g. "4.25/5 (4 ratings) [5:2 4:1 3:1 2:0 1:0]"
+    public String ratingSummary() {
+        if (ratingCount == 0) {
+            return "No ratings yet";
+        }
+        StringBuilder sb = new StringBuilder(String.format("%.2f/%d (%d rating%s) [",
+                getAverageRating(), Comment.MAX_RATING, ratingCount, ratingCount == 1 ? "" : "s"));
+        for (int r = Comment.MAX_RATING; r >= Comment.MIN_RATING; r--) {
+            sb.append(r).append(':').append(ratingHistogram[r]).append(r > Comment.MIN_RATING ? " " : "]");
+        }
+        return sb.toString();
+    }
+
+    private void addRating(int rating) {
+        ratingCount++;
+        ratingSum += rating;
+        ratingHistogram[rating]++;
+    }
+
+    private void removeRating(int rating) {
+        ratingCount--;
+        ratingSum -= rating;
+        ratingHistogram[rating]--;
     }
 
-    // Update a specific comment
-    public void updateComment(int index, String newText, int newRating) {
-        if (index >= 0 && index < commentCount) {
-            comments[index].text = newText;
-            comments[index].rating = newRating;
-            System.out.println("Comment updated successfully!");
-        } else {
-            System.out.println("Invalid comment index!");
+    // The leaderboard orders by the aggregates, so take this tutorial out while they change
+    private void beforeRatingChange() {
+        if (leaderboard != null) {
+            leaderboard.remove(this);
         }
     }
 
-    // Delete a specific comment
-    public void deleteComment(int index) {
-        if (index >= 0 && index < commentCount) {
-            for (int i = index; i < commentCount - 1; i++) {
-                comments[i] = comments[i + 1];
-            }
-            comments[--commentCount] = null;
-            System.out.println("Comment deleted successfully!");
-        } else {
-            System.out.println("Invalid comment index!");
+    private void afterRatingChange() {
+        if (leaderboard != null) {
+            leaderboard.add(this);
         }
     }
 
-    // Display tutorial details
+    // Display tutorial details (comments are shown page by page with viewComments)
     public void displayTutorial() {
         System.out.println("Tutorial ID: " + tutorialId);
         System.out.println("Title: " + title);
         System.out.println("Description: " + description);
-        viewComments();
+        System.out.println("Rating: " + ratingSummary());
+        System.out.println("Comments: " + comments.size());
     }
 }
@@ -1,21 +1,36 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 // Main management system
 public class TutorialCommentFeedbackSystem {
-    static Tutorial[] tutorials = new Tutorial[100];
-    static int tutorialCount = 0;
+    static TutorialRegistry tutorials = new TutorialRegistry();
     static Scanner sc = new Scanner(System.in);
+    static final int TUTORIAL_PAGE_SIZE = 5;
+    static final int COMMENT_PAGE_SIZE = 10;
+    static TutorialStore store = new TutorialStore(Paths.get("."));
 
     public static void addTutorial() {
         System.out.print("Enter Tutorial ID: ");
         int id = sc.nextInt();
         sc.nextLine(); // consume newline
+        if (tutorials.contains(id)) {
+            System.out.println("Tutorial ID already exists!");
+            return;
+        }
         System.out.print("Enter Tutorial Title: ");
         String title = sc.nextLine();
         System.out.print("Enter Tutorial Description: ");
         String desc = sc.nextLine();
-        tutorials[tutorialCount++] = new Tutorial(id, title, desc);
-        System.out.println("Tutorial added successfully!");
+        Tutorial t = new Tutorial(id, title, desc);
+        tutorials.add(t);
+        try {
+            store.tutorialAdded(t);
+            System.out.println("Tutorial added successfully!");
+        } catch (IOException e) {
+            saveAfterLogFailure(e);
+        }
+        snapshotIfDue();
     }
 
     public static void addCommentToTutorial() {
@@ -31,20 +46,75 @@ public class TutorialCommentFeedbackSystem {
             System.out.print("Enter Rating (1-5): ");
             int rating = sc.nextInt();
             sc.nextLine();
-            t.addComment(new Comment(user, comment, rating));
+            Comment c = new Comment(user, comment, rating);
+            if (t.addComment(c)) {
+                try {
+                    store.commentAdded(t, c);
+                    System.out.println("Comment added successfully!");
+                } catch (IOException e) {
+                    saveAfterLogFailure(e);
+                }
+                snapshotIfDue();
+            } else {
+                printInvalidRating();
+            }
         } else {
             System.out.println("Tutorial not found!");
         }
     }
 
     public static void viewAllTutorials() {
-        if (tutorialCount == 0) {
+        if (tutorials.isEmpty()) {
             System.out.println("No tutorials available.");
             return;
         }
-        for (int i = 0; i < tutorialCount; i++) {
-            tutorials[i].displayTutorial();
-            System.out.println("=========================");
+        int cursor = 0; // position of the first tutorial on the page
+        while (true) {
+            for (Tutorial t : tutorials.page(cursor, TUTORIAL_PAGE_SIZE)) {
+                t.displayTutorial();
+                System.out.println("=========================");
+            }
+            int shown = Math.min(cursor + TUTORIAL_PAGE_SIZE, tutorials.size());
+            System.out.println("Showing tutorials " + (cursor + 1) + "-" + shown + " of " + tutorials.size());
+            String move = readPageMove(cursor > 0, shown < tutorials.size());
+            if (move.equals("n")) {
+                cursor += TUTORIAL_PAGE_SIZE;
+            } else if (move.equals("p")) {
+                cursor = Math.max(0, cursor - TUTORIAL_PAGE_SIZE);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Show a tutorial's comments one page at a time; the cursors are comment sequence numbers
+    public static void browseComments(Tutorial t) {
+        CommentLog.Page page = t.comments.pageAfter(0, COMMENT_PAGE_SIZE);
+        while (true) {
+            t.viewComments(page);
+            String move = readPageMove(page.hasPrevious, page.hasNext);
+            if (move.equals("n")) {
+                page = t.comments.pageAfter(page.nextCursor(), COMMENT_PAGE_SIZE);
+            } else if (move.equals("p")) {
+                page = t.comments.pageBefore(page.previousCursor(), COMMENT_PAGE_SIZE);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Ask for n (next), p (previous) or q (quit); returns "q" when there is nowhere to go
+    private static String readPageMove(boolean hasPrevious, boolean hasNext) {
+        if (!hasPrevious && !hasNext) {
+            return "q";
+        }
+        while (true) {
+            System.out.print((hasNext ? "n = next, " : "") + (hasPrevious ? "p = previous, " : "") + "q = back: ");
+            String move = sc.nextLine().trim().toLowerCase();
+            if (move.equals("q") || (move.equals("n") && hasNext) || (move.equals("p") && hasPrevious)) {
+                return move;
+            }
+            System.out.println("Invalid option!");
         }
     }
 
@@ -55,6 +125,7 @@ public class TutorialCommentFeedbackSystem {
         Tutorial t = findTutorialById(id);
         if (t != null) {
             t.displayTutorial();
+            browseComments(t);
         } else {
             System.out.println("Tutorial not found!");
         }
@@ -74,7 +145,19 @@ public class TutorialCommentFeedbackSystem {
             System.out.print("Enter New Rating: ");
             int newRating = sc.nextInt();
             sc.nextLine();
-            t.updateComment(index, newComment, newRating);
+            if (!Comment.isValidRating(newRating)) {
+                printInvalidRating();
+            } else if (t.updateComment(index, newComment, newRating)) {
+                try {
+                    store.commentUpdated(t, index, newComment, newRating);
+                    System.out.println("Comment updated successfully!");
+                } catch (IOException e) {
+                    saveAfterLogFailure(e);
+                }
+                snapshotIfDue();
+            } else {
+                System.out.println("Invalid comment index!");
+            }
         } else {
             System.out.println("Tutorial not found!");
         }
@@ -89,22 +172,131 @@ public class TutorialCommentFeedbackSystem {
             System.out.print("Enter Comment Index (starting from 1): ");
             int index = sc.nextInt() - 1;
             sc.nextLine();
-            t.deleteComment(index);
+            if (t.deleteComment(index)) {
+                try {
+                    store.commentDeleted(t, index);
+                    System.out.println("Comment deleted successfully!");
+                } catch (IOException e) {
+                    saveAfterLogFailure(e);
+                }
+                snapshotIfDue();
+            } else {
+                System.out.println("Invalid comment index!");
+            }
         } else {
             System.out.println("Tutorial not found!");
         }
     }
 
-    private static Tutorial findTutorialById(int id) {
-        for (int i = 0; i < tutorialCount; i++) {
-            if (tutorials[i].tutorialId == id) {
-                return tutorials[i];
+    public static void viewTopRatedTutorials() {
+        System.out.print("How many tutorials to show: ");
+        int n = sc.nextInt();
+        sc.nextLine();
+        Tutorial[] top = tutorials.topRated(Math.max(n, 0));
+        if (top.length == 0) {
+            System.out.println("No rated tutorials yet.");
+            return;
+        }
+        System.out.println("\n=== Top Rated Tutorials ===");
+        for (int i = 0; i < top.length; i++) {
+            System.out.println((i + 1) + ". [" + top[i].tutorialId + "] " + top[i].title
+                    + " - " + top[i].ratingSummary());
+        }
+    }
+
+    public static void searchComments() {
+        System.out.print("Enter keyword(s): ");
+        String query = sc.nextLine();
+        showCommentResults(tutorials.searchComments(query), "containing \"" + query.trim() + "\"");
+    }
+
+    public static void viewCommentsByUser() {
+        System.out.print("Enter Username: ");
+        String user = sc.nextLine();
+        showCommentResults(tutorials.commentsByUser(user), "by " + user.trim());
+    }
+
+    // Show search results a page at a time, each with the tutorial it belongs to
+    private static void showCommentResults(Comment[] results, String description) {
+        if (results.length == 0) {
+            System.out.println("No comments found " + description + ".");
+            return;
+        }
+        System.out.println("\n=== " + results.length + " comment(s) " + description + " ===");
+        int cursor = 0;
+        while (true) {
+            int end = Math.min(cursor + COMMENT_PAGE_SIZE, results.length);
+            for (int i = cursor; i < end; i++) {
+                Tutorial t = tutorials.find(results[i].tutorialId);
+                System.out.println("Tutorial [" + results[i].tutorialId + "] " + (t != null ? t.title : ""));
+                results[i].display();
+                System.out.println("-----------------------");
+            }
+            System.out.println("Showing results " + (cursor + 1) + "-" + end + " of " + results.length);
+            String move = readPageMove(cursor > 0, end < results.length);
+            if (move.equals("n")) {
+                cursor = end;
+            } else if (move.equals("p")) {
+                cursor = Math.max(0, cursor - COMMENT_PAGE_SIZE);
+            } else {
+                return;
             }
         }
-        return null;
+    }
+
+    private static void printInvalidRating() {
+        System.out.println("Rating must be between " + Comment.MIN_RATING + " and " + Comment.MAX_RATING + "!");
+    }
+
+    // The change was made in memory but could not be logged: try to save
+    // everything with a full snapshot instead, which also restarts the log
+    private static void saveAfterLogFailure(IOException e) {
+        System.out.println("Error saving data: " + e.getMessage());
+        try {
+            store.snapshot(tutorials);
+            System.out.println("Saved all data to a new snapshot instead.");
+        } catch (IOException snapshotError) {
+            System.out.println("Error writing snapshot: " + snapshotError.getMessage());
+            System.out.println("The change is kept for this session only.");
+        }
+    }
+
+    // Compact the change log into a snapshot every TutorialStore.SNAPSHOT_EVERY changes
+    private static void snapshotIfDue() {
+        if (store.snapshotDue()) {
+            try {
+                store.snapshot(tutorials);
+            } catch (IOException e) {
+                System.out.println("Error writing snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    // Load saved tutorials and make sure logged changes reach disk on any exit
+    private static void loadData() {
+        try {
+            int replayed = store.load(tutorials);
+            System.out.println("Loaded " + tutorials.size() + " tutorial(s)"
+                    + (replayed > 0 ? " (" + replayed + " change(s) replayed from the log)" : "") + ".");
+        } catch (IOException e) {
+            System.out.println("Error loading saved data: " + e.getMessage());
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.out.println("Error saving data: " + e.getMessage());
+            }
+        }));
+    }
+
+    private static Tutorial findTutorialById(int id) {
+        return tutorials.find(id);
     }
 
     public static void main(String[] args) {
+        loadData();
         while (true) {
             System.out.println("\n=== Tutorial Comment & Feedback System ===");
             System.out.println("1. Add Tutorial");
@@ -113,7 +305,10 @@ public class TutorialCommentFeedbackSystem {
             System.out.println("4. Search Tutorial by ID");
             System.out.println("5. Update Comment in Tutorial");
             System.out.println("6. Delete Comment from Tutorial");
-            System.out.println("7. Exit");
+            System.out.println("7. Top Rated Tutorials");
+            System.out.println("8. Search Comments by Keyword");
+            System.out.println("9. View Comments by User");
+            System.out.println("10. Exit");
             System.out.print("Enter choice: ");
             int choice = sc.nextInt();
             sc.nextLine();
@@ -137,6 +332,22 @@ public class TutorialCommentFeedbackSystem {
                     deleteCommentFromTutorial();
                     break;
                 case 7:
+                    viewTopRatedTutorials();
+                    break;
+                case 8:
+                    searchComments();
+                    break;
+                case 9:
+                    viewCommentsByUser();
+                    break;
+                case 10:
+                    try {
+                        store.snapshot(tutorials);
+                        store.close();
+                        System.out.println("Data saved.");
+                    } catch (IOException e) {
+                        System.out.println("Error saving data: " + e.getMessage());
+                    }
                     System.out.println("Exiting...");
                     return;
                 default:
@@ -0,0 +1,113 @@
+import java.util.Arrays;
+
+// Growable list of tutorials with an int-keyed hash index (open addressing, linear probing)
+class TutorialRegistry {
+    private Tutorial[] tutorials = new Tutorial[16]; // insertion order, for listing
+    private int count = 0;
+
+    // Hash index: tutorial ID -> tutorial; a null slot is empty
+    private int[] keys = new int[32];
+    private Tutorial[] slots = new Tutorial[32];
+
+    private final RatingLeaderboard leaderboard = new RatingLeaderboard();
+    private final CommentIndex commentIndex = new CommentIndex();
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Tutorial at a position in insertion order (0 to size - 1)
+    public Tutorial get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        return tutorials[index];
+    }
+
+    // Up to pageSize tutorials starting at a position (the cursor) in insertion order
+    public Tutorial[] page(int from, int pageSize) {
+        int start = Math.max(0, Math.min(from, count));
+        return Arrays.copyOfRange(tutorials, start, Math.min(count, start + pageSize));
+    }
+
+    // Look up a tutorial by ID, or null if there is none
+    public Tutorial find(int id) {
+        int mask = slots.length - 1;
+        for (int i = hash(id) & mask; slots[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return slots[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(int id) {
+        return find(id) != null;
+    }
+
+    // Add a tutorial; returns false if its ID is already taken
+    public boolean add(Tutorial t) {
+        if (contains(t.tutorialId)) {
+            return false;
+        }
+        if ((count + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        insert(t);
+        t.leaderboard = leaderboard;
+        leaderboard.add(t);
+        t.commentIndex = commentIndex;
+        for (Comment c : t.comments.toArray()) {
+            commentIndex.add(c);
+        }
+        if (count == tutorials.length) {
+            tutorials = Arrays.copyOf(tutorials, count * 2);
+        }
+        tutorials[count++] = t;
+        return true;
+    }
+
+    // Best rated tutorials (by average rating), best first
+    public Tutorial[] topRated(int n) {
+        return leaderboard.top(n);
+    }
+
+    // Comments (of any tutorial) containing every word of the query, oldest first
+    public Comment[] searchComments(String query) {
+        return commentIndex.search(query);
+    }
+
+    // All comments written by a user (case-insensitive), oldest first
+    public Comment[] commentsByUser(String username) {
+        return commentIndex.byUser(username);
+    }
+
+    // Keep the index at most half full so probe chains stay short
+    private void rehash(int capacity) {
+        keys = new int[capacity];
+        slots = new Tutorial[capacity];
+        for (int i = 0; i < count; i++) {
+            insert(tutorials[i]);
+        }
+    }
+
+    private void insert(Tutorial t) {
+        int mask = slots.length - 1;
+        int i = hash(t.tutorialId) & mask;
+        while (slots[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = t.tutorialId;
+        slots[i] = t;
+    }
+
+    // Spread sequential IDs over the table (Fibonacci hashing)
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
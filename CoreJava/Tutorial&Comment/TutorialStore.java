@@ -0,0 +1,447 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Persistent storage for tutorials and comments: a snapshot file plus an
+// append-only binary log of the changes made since that snapshot.
+//
+// Every change is encoded as one log record [length][crc32][payload] and
+// handed to a writer thread, which collects records for a few milliseconds and
+// writes and syncs them as one batch (group commit). On start-up the snapshot
+// is loaded and the log replayed; a torn record at the end of the log (e.g.
+// after a crash) ends the replay and is cut off. Once the log holds at least
+// SNAPSHOT_EVERY changes and as many as the last snapshot had entries (so
+// snapshot cost stays proportional to the changes), and on exit, the state is
+// written to a new snapshot and the log restarts.
+// Both files carry a generation number, so a log that is already part of the
+// snapshot is never replayed twice.
+class TutorialStore implements Closeable {
+    static final String SNAPSHOT_FILE = "tutorials.snapshot";
+    static final String LOG_FILE = "tutorials.log";
+    static final int SNAPSHOT_EVERY = 10000;    // minimum changes between snapshots
+    static final int MAX_BATCH = 1024;          // records per group commit
+    static final long COMMIT_WINDOW_MS = 10;    // how long a batch collects records
+
+    private static final int SNAPSHOT_MAGIC = 0x54435350; // "TCSP"
+    private static final int LOG_MAGIC = 0x54434C47;      // "TCLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int LOG_HEADER_SIZE = 16;        // magic, version, generation
+
+    private static final byte ADD_TUTORIAL = 1;
+    private static final byte ADD_COMMENT = 2;
+    private static final byte UPDATE_COMMENT = 3;
+    private static final byte DELETE_COMMENT = 4;
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private FileChannel log;           // guarded by this
+    private long generation;           // generation of the current log
+    private int changesSinceSnapshot = 0;
+    private long snapshotEntries = 0;  // tutorials + comments in the last snapshot
+    private volatile IOException failure;
+    private volatile boolean closed = false;
+
+    // A record waiting for the writer, or a flush marker (data == null)
+    private static class Pending {
+        final byte[] data;
+        final CountDownLatch written;
+
+        Pending(byte[] data, CountDownLatch written) {
+            this.data = data;
+            this.written = written;
+        }
+    }
+
+    TutorialStore(Path directory) {
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.logFile = directory.resolve(LOG_FILE);
+        this.writer = new Thread(this::writeLoop, "tutorial-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    // Load the snapshot, replay the log into the registry and start logging.
+    // Returns the number of log records replayed.
+    public int load(TutorialRegistry registry) throws IOException {
+        long snapshotGeneration = 0;
+        if (Files.exists(snapshotFile)) {
+            snapshotGeneration = readSnapshot(registry);
+        }
+
+        int replayed = 0;
+        if (Files.exists(logFile)) {
+            log = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long logGeneration = readLogGeneration();
+            if (logGeneration > snapshotGeneration) {
+                generation = logGeneration;
+                replayed = replay(registry);
+            } else {
+                // Left over from a crash right after a snapshot: already included
+                log.close();
+                log = null;
+            }
+        }
+        if (log == null) {
+            startLog(snapshotGeneration + 1);
+        }
+        changesSinceSnapshot = replayed;
+        writer.start();
+        return replayed;
+    }
+
+    public void tutorialAdded(Tutorial t) throws IOException {
+        append(record(ADD_TUTORIAL, out -> {
+            out.writeInt(t.tutorialId);
+            writeString(out, t.title);
+            writeString(out, t.description);
+        }));
+    }
+
+    public void commentAdded(Tutorial t, Comment c) throws IOException {
+        append(record(ADD_COMMENT, out -> {
+            out.writeInt(t.tutorialId);
+            writeString(out, c.username);
+            writeString(out, c.text);
+            out.writeByte(c.rating);
+        }));
+    }
+
+    public void commentUpdated(Tutorial t, int index, String text, int rating) throws IOException {
+        append(record(UPDATE_COMMENT, out -> {
+            out.writeInt(t.tutorialId);
+            out.writeInt(index);
+            writeString(out, text);
+            out.writeByte(rating);
+        }));
+    }
+
+    public void commentDeleted(Tutorial t, int index) throws IOException {
+        append(record(DELETE_COMMENT, out -> {
+            out.writeInt(t.tutorialId);
+            out.writeInt(index);
+        }));
+    }
+
+    // True once enough changes have been logged to make a new snapshot worthwhile
+    public boolean snapshotDue() {
+        return changesSinceSnapshot >= Math.max(SNAPSHOT_EVERY, snapshotEntries);
+    }
+
+    // Write the whole registry to a new snapshot and start an empty log.
+    // Must be called from the thread that makes the changes. This also recovers
+    // from a failed log write: the registry holds every change, so a good
+    // snapshot replaces the broken log and logging resumes.
+    public void snapshot(TutorialRegistry registry) throws IOException {
+        awaitWriter();
+        long entries = registry.size();
+        Path temp = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(generation);
+            out.writeInt(registry.size());
+            for (int i = 0; i < registry.size(); i++) {
+                Tutorial t = registry.get(i);
+                out.writeInt(t.tutorialId);
+                writeString(out, t.title);
+                writeString(out, t.description);
+                Comment[] comments = t.comments.toArray();
+                entries += comments.length;
+                out.writeInt(comments.length);
+                for (Comment c : comments) {
+                    writeString(out, c.username);
+                    writeString(out, c.text);
+                    out.writeByte(c.rating);
+                    out.writeLong(c.indexOrder);
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+        moveReplacing(temp, snapshotFile);
+
+        synchronized (this) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                // The log is being replaced; everything in it is in the snapshot
+            }
+            startLog(generation + 1);
+        }
+        failure = null;
+        changesSinceSnapshot = 0;
+        snapshotEntries = entries;
+    }
+
+    // Wait until every change logged so far is on disk
+    public void flush() throws IOException {
+        awaitWriter();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Wait until the writer has handled every record queued so far
+    private void awaitWriter() throws IOException {
+        if (!closed) {
+            CountDownLatch done = new CountDownLatch(1);
+            queue.add(new Pending(null, done));
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while saving");
+            }
+        }
+    }
+
+    // Flush outstanding changes and stop the writer
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            writer.interrupt();
+            synchronized (this) {
+                if (log != null) {
+                    log.close();
+                }
+            }
+        }
+    }
+
+    // Hand a record to the writer. Once a batch has failed to write, the writer
+    // drops everything after it, so refuse new records instead of losing them.
+    private void append(byte[] data) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Store is closed");
+        }
+        IOException failed = failure;
+        if (failed != null) {
+            throw new IOException("Change log is not writable: " + failed.getMessage(), failed);
+        }
+        queue.add(new Pending(data, null));
+        changesSinceSnapshot++;
+    }
+
+    // Group commit: take everything that arrives within the commit window,
+    // write it with one call and sync once
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+        while (true) {
+            try {
+                Pending first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COMMIT_WINDOW_MS);
+                while (first.data != null && batch.size() < MAX_BATCH) {
+                    long wait = deadline - System.nanoTime();
+                    Pending next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                    if (next.data == null) break; // someone is waiting: commit now
+                }
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) return;
+            }
+
+            buffer.reset();
+            for (Pending p : batch) {
+                if (p.data != null) {
+                    buffer.write(p.data, 0, p.data.length);
+                }
+            }
+            if (buffer.size() > 0 && failure == null) {
+                try {
+                    synchronized (this) {
+                        log.write(ByteBuffer.wrap(buffer.toByteArray()));
+                        log.force(false);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                    System.out.println("Error saving data: " + e.getMessage()
+                            + " (changes are kept in memory until a snapshot succeeds)");
+                }
+            }
+            for (Pending p : batch) {
+                if (p.written != null) {
+                    p.written.countDown();
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Encode one log record: [payload length][crc32 of payload][type][body]
+    private static byte[] record(byte type, RecordBody body) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(payload);
+            out.writeByte(type);
+            body.write(out);
+            byte[] bytes = payload.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            ByteArrayOutputStream framed = new ByteArrayOutputStream(bytes.length + 8);
+            DataOutputStream frame = new DataOutputStream(framed);
+            frame.writeInt(bytes.length);
+            frame.writeInt((int) crc.getValue());
+            frame.write(bytes);
+            return framed.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen with in-memory streams
+        }
+    }
+
+    private long readSnapshot(TutorialRegistry registry) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a tutorial snapshot: " + snapshotFile);
+            }
+            long snapshotGeneration = in.readLong();
+            int tutorialCount = in.readInt();
+            snapshotEntries = tutorialCount;
+            for (int i = 0; i < tutorialCount; i++) {
+                Tutorial t = new Tutorial(in.readInt(), readString(in), readString(in));
+                registry.add(t);
+                int commentCount = in.readInt();
+                snapshotEntries += commentCount;
+                for (int j = 0; j < commentCount; j++) {
+                    Comment c = new Comment(readString(in), readString(in), in.readByte());
+                    c.indexOrder = in.readLong();
+                    t.addComment(c);
+                }
+            }
+            return snapshotGeneration;
+        }
+    }
+
+    private long readLogGeneration() throws IOException {
+        if (log.size() < LOG_HEADER_SIZE) {
+            return 0;
+        }
+        DataInputStream in = new DataInputStream(Channels.newInputStream(log.position(0)));
+        if (in.readInt() != LOG_MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a tutorial log: " + logFile);
+        }
+        return in.readLong();
+    }
+
+    // Apply every intact record after the header; cut off a torn tail
+    private int replay(TutorialRegistry registry) throws IOException {
+        log.position(LOG_HEADER_SIZE);
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(log), 1 << 16));
+        long valid = LOG_HEADER_SIZE;
+        long size = log.size();
+        int replayed = 0;
+        CRC32 crc = new CRC32();
+        while (valid + 8 <= size) {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || valid + 8 + length > size) break;
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) break;
+
+            apply(registry, new DataInputStream(new ByteArrayInputStream(payload)));
+            valid += 8 + length;
+            replayed++;
+        }
+        if (valid < size) {
+            log.truncate(valid);
+        }
+        log.position(valid);
+        return replayed;
+    }
+
+    private static void apply(TutorialRegistry registry, DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == ADD_TUTORIAL) {
+            registry.add(new Tutorial(in.readInt(), readString(in), readString(in)));
+            return;
+        }
+        Tutorial t = registry.find(in.readInt());
+        if (t == null) {
+            return;
+        }
+        switch (type) {
+            case ADD_COMMENT:
+                t.addComment(new Comment(readString(in), readString(in), in.readByte()));
+                break;
+            case UPDATE_COMMENT:
+                t.updateComment(in.readInt(), readString(in), in.readByte());
+                break;
+            case DELETE_COMMENT:
+                t.deleteComment(in.readInt());
+                break;
+            default:
+                throw new IOException("Unknown log record type " + type);
+        }
+    }
+
+    // Replace the log with an empty one of the given generation
+    private void startLog(long newGeneration) throws IOException {
+        Path temp = logFile.resolveSibling(LOG_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream(LOG_HEADER_SIZE);
+            DataOutputStream out = new DataOutputStream(header);
+            out.writeInt(LOG_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(newGeneration);
+            channel.write(ByteBuffer.wrap(header.toByteArray()));
+            channel.force(true);
+        }
+        moveReplacing(temp, logFile);
+        log = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.position(log.size());
+        generation = newGeneration;
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}